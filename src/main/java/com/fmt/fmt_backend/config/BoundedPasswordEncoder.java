@@ -0,0 +1,126 @@
+package com.fmt.fmt_backend.config;
+
+import com.fmt.fmt_backend.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt encoder that runs every hash on a dedicated CPU-sized pool.
+ *
+ * A cost-12 hash burns ~250 ms of CPU, so running it directly on Tomcat threads lets a
+ * login burst starve every other endpoint. Here at most one hash per core runs at a time,
+ * a small queue absorbs spikes, and anything beyond that fails fast with a 503.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final int retryAfterSeconds;
+
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        int threads = properties.getThreads() > 0
+                ? properties.getThreads()
+                : Runtime.getRuntime().availableProcessors();
+
+        this.delegate = new BCryptPasswordEncoder(properties.getStrength());
+        this.timeoutMs = properties.getTimeoutMs();
+        this.retryAfterSeconds = properties.getRetryAfterSeconds();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.password.hash")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hash.rejected")
+                .description("Hash requests rejected because the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a worker")
+                .register(meterRegistry);
+
+        log.info("🔐 Password hashing pool started: {} threads, queue {}, BCrypt strength {}",
+                threads, properties.getQueueCapacity(), properties.getStrength());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchTimer);
+    }
+
+    /**
+     * The cost is stored in each user's hash ($2a$10$...), so users hashed with a lower
+     * cost than configured get transparently re-hashed on their next successful login.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("⚠️ Password hashing pool saturated ({} queued)", executor.getQueue().size());
+            throw new ServiceOverloadedException("Server is busy. Please try again shortly.", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            log.warn("⚠️ Password hash timed out after {} ms", timeoutMs);
+            throw new ServiceOverloadedException("Server is busy. Please try again shortly.", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.fmt.fmt_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary + read replica pools behind one routing DataSource.
+ *
+ * Only active when app.datasource.replica.url is non-empty; otherwise Spring Boot's single pool
+ * from spring.datasource is used as before. Flyway, JdbcTemplate and JPA all see the
+ * lazy routing proxy, so anything outside a @ReplicaRead read-only transaction still goes to the primary.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isBlank()")
+@Slf4j
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primary, ReplicaDataSourceProperties replica) {
+        HikariDataSource dataSource = primary.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(replica.getUrl())
+                .username(StringUtils.hasText(replica.getUsername()) ? replica.getUsername() : primary.determineUsername())
+                .password(StringUtils.hasText(replica.getPassword()) ? replica.getPassword() : primary.determinePassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setMinimumIdle(replica.getMinimumIdle());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                        @Qualifier("replicaDataSource") DataSource replica) {
+        log.info("🔀 Read/write routing enabled - @ReplicaRead transactions use the replica pool");
+        return new ReadWriteRoutingDataSource(primary, replica);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               ReadWriteRoutingDataSource routingDataSource,
+                                               ReplicaDataSourceProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, routingDataSource, properties, meterRegistry);
+    }
+
+    /**
+     * Marks the thread as accepting replica reads for the duration of a @ReplicaRead method.
+     * Infrastructure role so the auto-proxy creator applies it alongside the transaction advisor.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor replicaReadAdvisor() {
+        MethodInterceptor interceptor = invocation -> {
+            Boolean previous = ReplicaReads.enter();
+            try {
+                return invocation.proceed();
+            } finally {
+                ReplicaReads.restore(previous);
+            }
+        };
+        return new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(ReplicaRead.class), interceptor);
+    }
+}
@@ -0,0 +1,19 @@
+package com.fmt.fmt_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "enquiry.ingestion")
+@Data
+public class EnquiryIngestionProperties {
+
+    private String mode = "direct";                      // "buffered" = journal + queue + batched inserts
+    private int queueCapacity = 10000;                   // Queued submissions before we start rejecting with 503
+    private long flushIntervalMs = 500;                  // Max time a submission waits in the queue
+    private int flushBatchSize = 500;                    // Flush early once this many are queued; rows per INSERT
+    private String journalDir = "data/enquiry-journal";  // Replayed on startup after a crash
+    private boolean syncJournal = true;                  // fsync (group commit) before acknowledging a submission
+    private int retryAfterSeconds = 2;                   // Retry-After sent with the 503
+}
@@ -0,0 +1,19 @@
+package com.fmt.fmt_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "enquiry.notifications")
+@Data
+public class EnquiryNotificationProperties {
+
+    private boolean digestEnabled = true;                             // false = one email per enquiry
+    private long digestIntervalMs = 120000;                           // Max time an enquiry waits for its digest
+    private int digestMaxSize = 50;                                   // Send early once this many are waiting
+    private List<String> immediateInterestAreas = new ArrayList<>();  // Always emailed on their own, right away
+}
@@ -0,0 +1,83 @@
+package com.fmt.fmt_backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process regions for Hibernate's second-level and query cache.
+ *
+ * Every region is created here with a size cap and TTL, and Hibernate is set to fail on
+ * any region that isn't (hibernate.javax.cache.missing_cache_strategy: fail), so nothing
+ * can silently grow without a bound. The TTL is a safety net for writes that bypass
+ * Hibernate entirely - the known ones evict explicitly through UserCacheEvictor.
+ *
+ * Regions are per instance and eviction is local, so the users TTL is also how long another
+ * instance may serve a changed user row. Credential state (password, lockout, isActive) is never
+ * read from here - the login and JWT paths load it from the database on every request.
+ */
+@Configuration
+@Slf4j
+public class HibernateCacheConfig {
+
+    public static final String USERS_REGION = "users";
+    public static final String USERS_BY_EMAIL_REGION = "users-by-email";
+
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${cache.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${cache.users.ttl-seconds:600}")
+    private long usersTtlSeconds;
+
+    @Value("${cache.query-results.ttl-seconds:300}")
+    private long queryResultsTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        createRegion(cacheManager, meterRegistry, USERS_REGION, usersMaxSize, usersTtlSeconds);
+        createRegion(cacheManager, meterRegistry, USERS_BY_EMAIL_REGION, usersMaxSize, usersTtlSeconds);
+        createRegion(cacheManager, meterRegistry, QUERY_RESULTS_REGION, usersMaxSize, queryResultsTtlSeconds);
+        // Per-table last-write timestamps: a handful of entries, and they must never expire early
+        createRegion(cacheManager, meterRegistry, UPDATE_TIMESTAMPS_REGION, 1000, 0);
+
+        log.info("🗄️ Hibernate cache regions ready: {} entries max, {}s TTL for users", usersMaxSize, usersTtlSeconds);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry,
+                                     String name, long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        configuration.setStatisticsEnabled(true);
+
+        if (cacheManager.getCache(name) == null) {
+            JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(name, configuration));
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.fmt.fmt_backend.config;
 
+import com.fmt.fmt_backend.repository.UserRepository;
+import com.fmt.fmt_backend.repository.projection.LoginCredential;
 import com.fmt.fmt_backend.service.CustomUserDetailsService;
 import com.fmt.fmt_backend.service.JwtService;
 import jakarta.servlet.FilterChain;
@@ -11,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -24,6 +27,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final RequestContext requestContext;
 
     @Override
     protected void doFilterInternal(
@@ -58,9 +63,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // IMPORTANT: Always check if userEmail is not null
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                // Load user details from database
+                // Load only the credential columns - the full User is loaded later only if something asks for it
                 log.debug("👤 Loading user details for: {}", userEmail);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+                LoginCredential credential = requestContext.resolveCredential(
+                                userEmail, () -> userRepository.findLoginCredentialByEmail(userEmail))
+                        .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userEmail));
+                UserDetails userDetails = userDetailsService.toUserDetails(credential);
                 log.debug("✅ User details loaded successfully");
 
                 // Validate token
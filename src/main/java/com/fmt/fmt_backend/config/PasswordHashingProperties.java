@@ -0,0 +1,17 @@
+package com.fmt.fmt_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "security.password-hashing")
+@Data
+public class PasswordHashingProperties {
+
+    private int strength = 12;          // BCrypt cost for new hashes (older hashes are upgraded on login)
+    private int threads = 0;            // 0 = one thread per CPU core
+    private int queueCapacity = 64;     // Pending hashes before we start rejecting with 503
+    private long timeoutMs = 5000;      // Max time a request thread waits for its hash
+    private int retryAfterSeconds = 2;  // Retry-After sent with the 503
+}
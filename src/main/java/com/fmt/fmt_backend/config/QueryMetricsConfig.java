@@ -0,0 +1,117 @@
+package com.fmt.fmt_backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wires the query instrumentation: wraps the application DataSource in a datasource-proxy,
+ * tags every Spring Data repository call with its method name, and brackets each HTTP
+ * request so repeated statements can be reported. Replaces spring.jpa.show-sql.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.query-metrics.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class QueryMetricsConfig {
+
+    private static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    @Bean
+    public QueryMetricsListener queryMetricsListener(MeterRegistry meterRegistry, QueryMetricsProperties properties) {
+        return new QueryMetricsListener(meterRegistry, properties);
+    }
+
+    /**
+     * Only the bean JPA, Flyway and JdbcTemplate use - with read/write routing the underlying
+     * pools are left alone so nothing is timed twice.
+     */
+    @Bean
+    public static BeanPostProcessor queryMetricsDataSourceWrapper(ObjectProvider<QueryMetricsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (APPLICATION_DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ProxyDataSource)) {
+                    log.info("⏱️ Query metrics enabled on DataSource '{}'", beanName);
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryQueryOriginTagger() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    // Outermost, so flushes on a repository-level commit are attributed too
+                                    proxyFactory.addAdvice(0, originInterceptor(
+                                            repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> queryStatsFilter(QueryMetricsListener listener) {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                listener.beginRequest();
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    listener.endRequest(request.getMethod() + " " + request.getRequestURI());
+                }
+            }
+        };
+
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setName("queryStatsFilter");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE); // Ahead of Spring Security, so its lookups count too
+        return registration;
+    }
+
+    private static MethodInterceptor originInterceptor(String repositoryName) {
+        Map<Method, String> origins = new ConcurrentHashMap<>();
+        return invocation -> {
+            String origin = origins.computeIfAbsent(invocation.getMethod(),
+                    method -> repositoryName + "." + method.getName());
+            String previous = QueryOrigin.enter(origin);
+            try {
+                return invocation.proceed();
+            } finally {
+                QueryOrigin.restore(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,158 @@
+package com.fmt.fmt_backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times every JDBC statement and tags it with the repository method that issued it.
+ *
+ * Publishes db.query (histogram, tagged repository/type/outcome), logs a sample of slow
+ * statements with the types of their bind parameters - never the values - and, per HTTP
+ * request, flags statements repeated often enough to look like an N+1.
+ */
+@Slf4j
+public class QueryMetricsListener implements QueryExecutionListener {
+
+    private static final ThreadLocal<RequestQueries> REQUEST_QUERIES = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final QueryMetricsProperties properties;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Counter slowCounter;
+    private final DistributionSummary perRequestSummary;
+
+    private record TimerKey(String repository, String type, boolean success) {
+    }
+
+    private static final class RequestQueries {
+        private final Map<String, Integer> counts = new HashMap<>();
+        private final Map<String, String> origins = new HashMap<>();
+        private int total;
+    }
+
+    public QueryMetricsListener(MeterRegistry meterRegistry, QueryMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+
+        this.slowCounter = Counter.builder("db.query.slow")
+                .description("Statements slower than db.query-metrics.slow-threshold-ms")
+                .register(meterRegistry);
+        this.perRequestSummary = DistributionSummary.builder("db.query.per_request")
+                .description("JDBC statements executed per HTTP request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String origin = QueryOrigin.current();
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        long elapsedMs = execInfo.getElapsedTime();
+
+        timer(origin, QueryUtils.getQueryType(sql).name().toLowerCase(Locale.ROOT), execInfo.isSuccess())
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+
+        RequestQueries requestQueries = REQUEST_QUERIES.get();
+        if (requestQueries != null) {
+            requestQueries.total++;
+            requestQueries.counts.merge(sql, 1, Integer::sum);
+            requestQueries.origins.putIfAbsent(sql, origin);
+        }
+
+        if (elapsedMs >= properties.getSlowThresholdMs()) {
+            slowCounter.increment();
+            if (ThreadLocalRandom.current().nextDouble() < properties.getSlowSampleRate()) {
+                log.warn("🐢 Slow query ({} ms) [{}] {} | params: {}",
+                        elapsedMs, origin, abbreviate(sql), parameterShapes(queryInfoList.get(0)));
+            }
+        }
+    }
+
+    // ========== PER-REQUEST TRACKING ==========
+
+    public void beginRequest() {
+        REQUEST_QUERIES.set(new RequestQueries());
+    }
+
+    public void endRequest(String requestLine) {
+        RequestQueries requestQueries = REQUEST_QUERIES.get();
+        REQUEST_QUERIES.remove();
+        if (requestQueries == null) {
+            return;
+        }
+
+        perRequestSummary.record(requestQueries.total);
+        requestQueries.counts.forEach((sql, count) -> {
+            if (count >= properties.getRepeatedQueryThreshold()) {
+                String origin = requestQueries.origins.get(sql);
+                Counter.builder("db.query.repeated")
+                        .description("Requests that ran the same statement often enough to look like an N+1")
+                        .tag("repository", origin)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("🔁 Possible N+1 on {}: {}x [{}] {}", requestLine, count, origin, abbreviate(sql));
+            }
+        });
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Timer timer(String repository, String type, boolean success) {
+        return timers.computeIfAbsent(new TimerKey(repository, type, success), key -> Timer.builder("db.query")
+                .description("JDBC statement execution time")
+                .tag("repository", key.repository())
+                .tag("type", key.type())
+                .tag("outcome", key.success() ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private String abbreviate(String sql) {
+        String compact = sql.replaceAll("\\s+", " ").trim();
+        int max = properties.getMaxLoggedSqlLength();
+        return compact.length() <= max ? compact : compact.substring(0, max) + "...";
+    }
+
+    /**
+     * e.g. "(String, UUID, Boolean)" - or "3 x (UUID, Timestamp)" for a batch.
+     */
+    private static String parameterShapes(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> parameters = queryInfo.getParametersList();
+        if (parameters.isEmpty()) {
+            return "()";
+        }
+
+        String shape = parameters.get(0).stream()
+                .map(operation -> {
+                    Object[] args = operation.getArgs();
+                    Object value = args.length > 1 ? args[1] : null;
+                    return value == null || ParameterSetOperation.isSetNullParameterOperation(operation)
+                            ? "null"
+                            : value.getClass().getSimpleName();
+                })
+                .collect(Collectors.joining(", ", "(", ")"));
+        return parameters.size() == 1 ? shape : parameters.size() + " x " + shape;
+    }
+}
@@ -0,0 +1,17 @@
+package com.fmt.fmt_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "db.query-metrics")
+@Data
+public class QueryMetricsProperties {
+
+    private boolean enabled = true;
+    private long slowThresholdMs = 200;         // Statements at least this slow count as slow
+    private double slowSampleRate = 0.1;        // Fraction of slow statements that get logged
+    private int repeatedQueryThreshold = 10;    // Same statement this often in one request = likely N+1
+    private int maxLoggedSqlLength = 500;
+}
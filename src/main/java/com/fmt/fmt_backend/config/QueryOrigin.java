@@ -0,0 +1,39 @@
+package com.fmt.fmt_backend.config;
+
+/**
+ * The repository method currently running on this thread (e.g. "OtpRepository.findByIdentifier"),
+ * so JDBC statements can be attributed to it. Set by the repository proxy interceptor in
+ * QueryMetricsConfig; statements issued elsewhere (transaction-commit flushes, JdbcTemplate jobs)
+ * report as "none".
+ */
+public final class QueryOrigin {
+
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private QueryOrigin() {
+    }
+
+    public static String current() {
+        String origin = CURRENT.get();
+        return origin != null ? origin : NONE;
+    }
+
+    /**
+     * Returns the previous origin, to be passed back to {@link #restore} (repository calls can nest).
+     */
+    static String enter(String origin) {
+        String previous = CURRENT.get();
+        CURRENT.set(origin);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
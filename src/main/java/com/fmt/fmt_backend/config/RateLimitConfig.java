@@ -0,0 +1,46 @@
+package com.fmt.fmt_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fmt.fmt_backend.service.DeviceFingerprintService;
+import com.fmt.fmt_backend.service.JwtService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers RateLimitFilter as a servlet filter ahead of the Spring Security chain (and so ahead of
+ * JwtAuthenticationFilter). Set rate-limit.enabled=false to run without it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        RateLimiter rateLimiter = new RateLimiter(properties.getMaxKeys(), System::nanoTime);
+        Gauge.builder("rate_limit.buckets", rateLimiter, RateLimiter::size)
+                .description("Token buckets currently held by this instance")
+                .register(meterRegistry);
+        return rateLimiter;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   RateLimiter rateLimiter,
+                                                                   DeviceFingerprintService fingerprintService,
+                                                                   JwtService jwtService,
+                                                                   ObjectMapper objectMapper,
+                                                                   MeterRegistry meterRegistry) {
+        RateLimitFilter filter = new RateLimitFilter(properties, rateLimiter, fingerprintService,
+                jwtService, objectMapper, meterRegistry);
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setName("rateLimitFilter");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10); // Before springSecurityFilterChain
+        return registration;
+    }
+}
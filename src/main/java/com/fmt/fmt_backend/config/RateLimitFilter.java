@@ -0,0 +1,190 @@
+package com.fmt.fmt_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.service.DeviceFingerprintService;
+import com.fmt.fmt_backend.service.JwtService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the rate-limit.policies token buckets ahead of Spring Security, so a flood on login,
+ * signup or the enquiry form is turned away with 429 + Retry-After before it costs a user lookup,
+ * a BCrypt hash or an insert.
+ *
+ * The first policy matching the method and path applies: its per-IP bucket, then - only when the
+ * request carries a valid bearer token - its per-user bucket. Buckets are per instance.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<CompiledPolicy> policies;
+    private final RateLimiter rateLimiter;
+    private final DeviceFingerprintService fingerprintService;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private record CompiledLimit(long emissionIntervalNanos, int capacity, Counter rejected) {
+    }
+
+    private record CompiledPolicy(String name,
+                                  List<PathPattern> paths,
+                                  List<String> methods,
+                                  CompiledLimit perIp,
+                                  CompiledLimit perUser) {
+
+        boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method))
+                    && paths.stream().anyMatch(pattern -> pattern.matches(path));
+        }
+    }
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           RateLimiter rateLimiter,
+                           DeviceFingerprintService fingerprintService,
+                           JwtService jwtService,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.fingerprintService = fingerprintService;
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.policies = properties.getPolicies().stream().map(this::compile).toList();
+        log.info("🚦 Rate limiting {} route policies", policies.size());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        CompiledPolicy policy = match(request);
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (policy.perIp() != null) {
+            String ip = fingerprintService.clientIp(request);
+            long wait = acquire(policy.name() + "|ip|" + ip, policy.perIp());
+            if (wait > 0) {
+                log.warn("🚦 Rate limited {} from {} (per-ip)", policy.name(), ip);
+                reject(response, wait);
+                return;
+            }
+        }
+
+        if (policy.perUser() != null) {
+            String user = bearerSubject(request);
+            if (user != null) {
+                long wait = acquire(policy.name() + "|user|" + user, policy.perUser());
+                if (wait > 0) {
+                    log.warn("🚦 Rate limited {} for {} (per-user)", policy.name(), user);
+                    reject(response, wait);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getMethod().equals("OPTIONS");
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private CompiledPolicy match(HttpServletRequest request) {
+        if (policies.isEmpty()) {
+            return null;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (CompiledPolicy policy : policies) {
+            if (policy.matches(request.getMethod(), path)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private long acquire(String key, CompiledLimit limit) {
+        long wait = rateLimiter.tryAcquire(key, limit.emissionIntervalNanos(), limit.capacity());
+        if (wait > 0) {
+            limit.rejected().increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Verified subject of the bearer token, or null if absent / invalid / expired (those are
+     * left to JwtAuthenticationFilter and Spring Security).
+     */
+    private String bearerSubject(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (!StringUtils.hasText(authHeader) || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtService.extractUsername(authHeader.substring(7));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(
+                ApiResponse.error("Too many requests, please retry in " + retryAfterSeconds + " seconds")));
+    }
+
+    private CompiledPolicy compile(RateLimitProperties.Policy policy) {
+        if (policy.getPerIp() == null && policy.getPerUser() == null) {
+            log.warn("⚠️ Rate-limit policy {} has no per-ip or per-user limit and does nothing", policy.getName());
+        }
+        return new CompiledPolicy(
+                policy.getName(),
+                policy.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                policy.getMethods().stream().map(method -> method.toUpperCase(Locale.ROOT)).toList(),
+                compile(policy.getName(), "ip", policy.getPerIp()),
+                compile(policy.getName(), "user", policy.getPerUser()));
+    }
+
+    private CompiledLimit compile(String policy, String scope, RateLimitProperties.Limit limit) {
+        if (limit == null) {
+            return null;
+        }
+        if (limit.getCapacity() < 1 || limit.getRefillTokens() < 1) {
+            throw new IllegalStateException("Rate-limit policy " + policy + " needs capacity and refill-tokens >= 1");
+        }
+        Counter rejected = Counter.builder("http.server.requests.rate_limited")
+                .description("Requests rejected with 429 by RateLimitFilter")
+                .tag("policy", policy)
+                .tag("scope", scope)
+                .register(meterRegistry);
+        return new CompiledLimit(limit.getRefillPeriod().toNanos() / limit.getRefillTokens(), limit.getCapacity(), rejected);
+    }
+}
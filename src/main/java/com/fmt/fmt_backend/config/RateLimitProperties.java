@@ -0,0 +1,36 @@
+package com.fmt.fmt_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private int maxKeys = 100000;                     // Buckets held per instance before idle ones are evicted inline
+    private long evictionIntervalMs = 60000;          // How often idle (full) buckets are dropped
+    private List<Policy> policies = new ArrayList<>();  // First matching policy wins
+
+    @Data
+    public static class Policy {
+        private String name;
+        private List<String> paths = new ArrayList<>();    // Spring path patterns, e.g. /api/auth/signup/**
+        private List<String> methods = new ArrayList<>();  // Empty = any method
+        private Limit perIp;                               // Keyed by client IP (trusted-proxy aware)
+        private Limit perUser;                             // Keyed by bearer token subject; skipped without one
+    }
+
+    @Data
+    public static class Limit {
+        private int capacity;                              // Burst: requests allowed back to back
+        private int refillTokens;                          // Requests regained per refill-period
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
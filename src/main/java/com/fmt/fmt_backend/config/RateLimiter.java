@@ -0,0 +1,102 @@
+package com.fmt.fmt_backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token buckets, stored as one GCRA "theoretical arrival time" per key instead of a
+ * token count plus a refill timestamp.
+ *
+ * Refill is implicit - nothing runs per bucket between requests - and a request is one CAS on
+ * the key's AtomicLong, so hot keys never take a lock. A bucket whose arrival time has passed is
+ * full, which is the same as having no bucket at all; those are the idle ones the sweep drops.
+ *
+ * The key map is bounded. When it is full, a new key triggers at most one inline sweep per
+ * second; if nothing was idle (a flood of distinct keys that are all still draining) the new
+ * key is refused for one interval instead of growing the map. Existing keys are unaffected.
+ */
+@Slf4j
+public class RateLimiter {
+
+    private static final long INLINE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastInlineSweep;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(int maxKeys, LongSupplier nanoClock) {
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.lastInlineSweep = new AtomicLong(nanoClock.getAsLong() - INLINE_SWEEP_INTERVAL_NANOS);
+    }
+
+    /**
+     * A bucket holding capacity tokens, regaining one every emissionIntervalNanos.
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until one is available
+     */
+    public long tryAcquire(String key, long emissionIntervalNanos, int capacity) {
+        long now = nanoClock.getAsLong();
+        long burst = emissionIntervalNanos * capacity;
+
+        AtomicLong arrival = buckets.get(key);
+        if (arrival == null) {
+            if (buckets.size() >= maxKeys && !makeRoom(now)) {
+                return emissionIntervalNanos; // Saturated - refuse new keys rather than grow
+            }
+            arrival = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * A request racing the sweep may land on a just-removed bucket and go uncounted - one token, once.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        int before = buckets.size();
+        evictIdle(nanoClock.getAsLong());
+        log.debug("🧹 Evicted {} idle rate-limit buckets", before - buckets.size());
+    }
+
+    /**
+     * One caller per interval pays for a sweep; everyone else sees the map as it is.
+     */
+    private boolean makeRoom(long now) {
+        long last = lastInlineSweep.get();
+        if (now - last >= INLINE_SWEEP_INTERVAL_NANOS && lastInlineSweep.compareAndSet(last, now)) {
+            int before = buckets.size();
+            evictIdle(now);
+            if (buckets.size() >= maxKeys) {
+                log.warn("🚦 Rate-limit key map saturated ({} keys, none idle, {} evicted) - refusing new keys",
+                        buckets.size(), before - buckets.size());
+            }
+        }
+        return buckets.size() < maxKeys;
+    }
+
+    private void evictIdle(long now) {
+        buckets.values().removeIf(arrival -> arrival.get() - now <= 0);
+    }
+}
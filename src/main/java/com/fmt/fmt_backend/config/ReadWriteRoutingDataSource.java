@@ -0,0 +1,93 @@
+package com.fmt.fmt_backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends read-only transactions that opted in with {@link ReplicaRead} to the replica pool and
+ * everything else to the primary - including Spring Data's implicit read-only repository
+ * transactions, so credential and account lookups always see their own writes.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for a connection
+ * before the read-only flag is bound to the thread, so the real pool is only picked once the first
+ * statement runs. The replica starts out unavailable until ReplicaLagMonitor has seen it in sync,
+ * and a failed replica connection falls back to the primary instead of failing the request.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final AtomicBoolean replicaAvailable = new AtomicBoolean(false);
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaAvailable.get()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && ReplicaReads.isAllowed()
+                ? Route.REPLICA
+                : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable.get();
+    }
+
+    public void markReplicaAvailable() {
+        if (replicaAvailable.compareAndSet(false, true)) {
+            log.info("📗 Read replica in sync - routing read-only transactions to it");
+        }
+    }
+
+    public void markReplicaUnavailable(String reason) {
+        if (replicaAvailable.compareAndSet(true, false)) {
+            log.warn("📕 Read replica unavailable ({}) - routing all traffic to the primary", reason);
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Connection connect(ConnectionOpener opener) throws SQLException {
+        DataSource primary = getResolvedDefaultDataSource();
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return opener.open(primary);
+        }
+
+        try {
+            return opener.open(target);
+        } catch (SQLException e) {
+            markReplicaUnavailable("connection failed: " + e.getMessage());
+            return opener.open(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,19 @@
+package com.fmt.fmt_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+@Data
+public class ReplicaDataSourceProperties {
+
+    private String url;                     // Routing is only enabled when this is set
+    private String username;                // Defaults to spring.datasource.username
+    private String password;                // Defaults to spring.datasource.password
+    private int maximumPoolSize = 10;
+    private int minimumIdle = 2;
+    private long maxLagSeconds = 10;        // Beyond this, read-only work goes back to the primary
+    private long lagCheckIntervalMs = 5000;
+}
@@ -0,0 +1,75 @@
+package com.fmt.fmt_backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Polls the replica's replay lag and switches read-only routing on or off.
+ *
+ * A replica that has replayed everything it received counts as zero lag even if the primary
+ * has been idle for a while - but only while its WAL receiver is running. Without one it has
+ * also "replayed everything it received" and is falling behind unseen, so that counts as
+ * unavailable. Anything behind by more than max-lag-seconds, or a failed check, sends reads
+ * back to the primary until the next healthy check.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // NULL = no WAL receiver. status is only visible with pg_read_all_stats; without it the row's presence has to do
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver
+                                 WHERE COALESCE(status, 'streaming') = 'streaming') THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final JdbcTemplate replica;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final long maxLagSeconds;
+
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReadWriteRoutingDataSource routingDataSource,
+                             ReplicaDataSourceProperties properties, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replica.setQueryTimeout(2);
+        this.routingDataSource = routingDataSource;
+        this.maxLagSeconds = properties.getMaxLagSeconds();
+
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Seconds the read replica is behind the primary (NaN when unreachable)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.available", routingDataSource, ds -> ds.isReplicaAvailable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        try {
+            Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+            lagSeconds = lag != null ? lag : Double.NaN;
+
+            if (lag == null) {
+                routingDataSource.markReplicaUnavailable("WAL receiver not streaming");
+            } else if (lag > maxLagSeconds) {
+                routingDataSource.markReplicaUnavailable(String.format("lag %.1fs > %ds", lag, maxLagSeconds));
+            } else {
+                routingDataSource.markReplicaAvailable();
+            }
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            routingDataSource.markReplicaUnavailable("lag check failed: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
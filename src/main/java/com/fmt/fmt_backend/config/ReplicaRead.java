@@ -0,0 +1,21 @@
+package com.fmt.fmt_backend.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a @Transactional(readOnly = true) method into the read replica, which may lag the primary
+ * by up to app.datasource.replica.max-lag-seconds.
+ *
+ * Only for reads that tolerate that: admin listings, exports, search. Never for credentials,
+ * account state or anything the caller may just have written - read-only transactions without
+ * this annotation (including Spring Data's implicit ones) stay on the primary.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
@@ -0,0 +1,35 @@
+package com.fmt.fmt_backend.config;
+
+/**
+ * Whether the code running on this thread accepts replica reads. Set around {@link ReplicaRead}
+ * methods by the advisor in DataSourceRoutingConfig; work that runs on another thread (e.g. the
+ * streaming export) enters it itself.
+ */
+public final class ReplicaReads {
+
+    private static final ThreadLocal<Boolean> ALLOWED = new ThreadLocal<>();
+
+    private ReplicaReads() {
+    }
+
+    public static boolean isAllowed() {
+        return Boolean.TRUE.equals(ALLOWED.get());
+    }
+
+    /**
+     * Returns the previous state, to be passed back to {@link #restore} (calls can nest).
+     */
+    public static Boolean enter() {
+        Boolean previous = ALLOWED.get();
+        ALLOWED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    public static void restore(Boolean previous) {
+        if (previous == null) {
+            ALLOWED.remove();
+        } else {
+            ALLOWED.set(previous);
+        }
+    }
+}
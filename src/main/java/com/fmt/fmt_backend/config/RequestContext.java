@@ -0,0 +1,75 @@
+package com.fmt.fmt_backend.config;
+
+import com.fmt.fmt_backend.entity.User;
+import com.fmt.fmt_backend.repository.projection.LoginCredential;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Per-request identity map.
+ *
+ * The first component that resolves the current credential, user, client IP or device fingerprint
+ * stores it here; everyone else in the same request reuses it instead of re-querying
+ * or re-hashing. Lives only as long as the HTTP request.
+ */
+@Component
+@RequestScope
+public class RequestContext {
+
+    private LoginCredential currentCredential;
+    private User currentUser;
+    private String clientIp;
+    private String deviceFingerprint;
+
+    /**
+     * True when called on a thread bound to an HTTP request (false for @Async / @Scheduled work).
+     */
+    public static boolean isActive() {
+        return RequestContextHolder.getRequestAttributes() != null;
+    }
+
+    /**
+     * The lean credential row the JWT filter authenticates with - enough for id/role checks.
+     */
+    public Optional<LoginCredential> resolveCredential(String email, Supplier<Optional<LoginCredential>> loader) {
+        if (currentCredential != null && currentCredential.getEmail().equalsIgnoreCase(email)) {
+            return Optional.of(currentCredential);
+        }
+
+        Optional<LoginCredential> credential = loader.get();
+        credential.ifPresent(c -> this.currentCredential = c);
+        return credential;
+    }
+
+    public Optional<LoginCredential> getCurrentCredential() {
+        return Optional.ofNullable(currentCredential);
+    }
+
+    public Optional<User> resolveCurrentUser(String email, Supplier<Optional<User>> loader) {
+        if (currentUser != null && currentUser.getEmail().equalsIgnoreCase(email)) {
+            return Optional.of(currentUser);
+        }
+
+        Optional<User> user = loader.get();
+        user.ifPresent(u -> this.currentUser = u);
+        return user;
+    }
+
+    public String resolveClientIp(Supplier<String> resolver) {
+        if (clientIp == null) {
+            clientIp = resolver.get();
+        }
+        return clientIp;
+    }
+
+    public String resolveDeviceFingerprint(Supplier<String> resolver) {
+        if (deviceFingerprint == null) {
+            deviceFingerprint = resolver.get();
+        }
+        return deviceFingerprint;
+    }
+}
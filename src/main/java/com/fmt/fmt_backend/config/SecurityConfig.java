@@ -1,6 +1,7 @@
 package com.fmt.fmt_backend.config;
 
 import com.fmt.fmt_backend.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,7 +15,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -31,6 +31,8 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService customUserDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final PasswordHashingProperties passwordHashingProperties;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -134,6 +136,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(customUserDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(customUserDetailsService); // Re-hash weaker passwords on login
         return authProvider;
     }
 
@@ -143,9 +146,9 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
+    @Bean(destroyMethod = "shutdown")
     public PasswordEncoder passwordEncoder() {
-        // BCrypt with strength 12 (production recommended)
-        return new BCryptPasswordEncoder(12);
+        // BCrypt (strength 12 by default) on a bounded pool - keeps hashing off Tomcat threads
+        return new BoundedPasswordEncoder(passwordHashingProperties, meterRegistry);
     }
 }
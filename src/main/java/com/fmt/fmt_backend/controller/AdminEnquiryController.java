@@ -0,0 +1,131 @@
+package com.fmt.fmt_backend.controller;
+
+import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.dto.EnquiryPageResponse;
+import com.fmt.fmt_backend.dto.EnquiryResponse;
+import com.fmt.fmt_backend.dto.EnquiryStatsResponse;
+import com.fmt.fmt_backend.entity.Enquiry;
+import com.fmt.fmt_backend.service.AdminEnquiryService;
+import com.fmt.fmt_backend.service.AdminEnquiryService.ExportFormat;
+import com.fmt.fmt_backend.service.EnquiryStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/enquiries")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin - Enquiries", description = "Enquiry listing, export, status and stats (ADMIN role)")
+public class AdminEnquiryController {
+
+    private final AdminEnquiryService adminEnquiryService;
+    private final EnquiryStatsService enquiryStatsService;
+
+    @GetMapping
+    @Operation(
+            summary = "List Enquiries",
+            description = "Newest first, keyset-paginated. Pass nextCursor from the previous page as cursor."
+    )
+    public ResponseEntity<ApiResponse<EnquiryPageResponse>> listEnquiries(
+            @RequestParam(required = false) Enquiry.EnquiryStatus status,
+            @Parameter(description = "Inclusive, ISO date-time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive, ISO date-time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        log.info("📋 Admin listing enquiries (status={}, from={}, to={})", status, from, to);
+
+        ApiResponse<EnquiryPageResponse> response =
+                adminEnquiryService.listEnquiries(status, from, to, cursor, size);
+
+        return ResponseEntity.status(response.isSuccess() ? 200 : 400).body(response);
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export Enquiries",
+            description = "Streams all matching enquiries as CSV or NDJSON (newest first) without buffering them"
+    )
+    public ResponseEntity<StreamingResponseBody> exportEnquiries(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) Enquiry.EnquiryStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.info("📤 Admin exporting enquiries as {} (status={}, from={}, to={})", format, status, from, to);
+
+        String filename = "enquiries-" + LocalDate.now() + "." + format.getExtension();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(adminEnquiryService.export(format, status, from, to));
+    }
+
+    @PatchMapping("/{id}/status")
+    @Operation(summary = "Update Enquiry Status", description = "Move an enquiry to NEW, CONTACTED or CLOSED")
+    public ResponseEntity<ApiResponse<EnquiryResponse>> updateStatus(
+            @PathVariable UUID id,
+            @RequestParam Enquiry.EnquiryStatus status) {
+
+        log.info("📝 Admin setting enquiry {} to {}", id, status);
+
+        ApiResponse<EnquiryResponse> response = adminEnquiryService.updateStatus(id, status);
+
+        return ResponseEntity.status(response.isSuccess() ? 200 : 400).body(response);
+    }
+
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Enquiry Stats",
+            description = "Counts per day, status, city and experience level for enquiries received between from and to " +
+                    "(inclusive dates, default today). Served from the daily rollup, not a scan of enquiries."
+    )
+    public ResponseEntity<ApiResponse<EnquiryStatsResponse>> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end;
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("from must not be after to"));
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Enquiry stats retrieved", enquiryStatsService.getStats(start, end)));
+    }
+
+    @PostMapping("/stats/rebuild")
+    @Operation(
+            summary = "Rebuild Enquiry Stats",
+            description = "Recompute the daily rollup from enquiries in one grouped scan. Run while enquiry writes are quiet."
+    )
+    public ResponseEntity<ApiResponse<EnquiryStatsResponse>> rebuildStats() {
+        log.info("📊 Admin rebuilding enquiry stats");
+
+        enquiryStatsService.rebuild();
+        LocalDate today = LocalDate.now();
+
+        return ResponseEntity.ok(ApiResponse.success("Enquiry stats rebuilt", enquiryStatsService.getStats(today, today)));
+    }
+}
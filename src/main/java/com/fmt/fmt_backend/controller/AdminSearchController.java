@@ -0,0 +1,55 @@
+package com.fmt.fmt_backend.controller;
+
+import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.dto.EnquiryResponse;
+import com.fmt.fmt_backend.dto.SearchResultsResponse;
+import com.fmt.fmt_backend.dto.UserProfileResponse;
+import com.fmt.fmt_backend.service.AdminSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/search")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin - Search", description = "Ranked, typo-tolerant search over enquiries and users (ADMIN role)")
+public class AdminSearchController {
+
+    private final AdminSearchService adminSearchService;
+
+    @GetMapping("/enquiries")
+    @Operation(summary = "Search Enquiries", description = "Matches name, city, area of interest and message; best match first")
+    public ResponseEntity<ApiResponse<SearchResultsResponse<EnquiryResponse>>> searchEnquiries(
+            @Parameter(description = "At least 3 characters") @RequestParam String q,
+            @Parameter(description = "Zero-based") @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+
+        log.info("🔍 Admin searching enquiries for '{}'", q);
+
+        ApiResponse<SearchResultsResponse<EnquiryResponse>> response = adminSearchService.searchEnquiries(q, page, size);
+
+        return ResponseEntity.status(response.isSuccess() ? 200 : 400).body(response);
+    }
+
+    @GetMapping("/users")
+    @Operation(summary = "Search Users", description = "Matches first/last name, email and phone number; best match first")
+    public ResponseEntity<ApiResponse<SearchResultsResponse<UserProfileResponse>>> searchUsers(
+            @Parameter(description = "At least 3 characters") @RequestParam String q,
+            @Parameter(description = "Zero-based") @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+
+        log.info("🔍 Admin searching users for '{}'", q);
+
+        ApiResponse<SearchResultsResponse<UserProfileResponse>> response = adminSearchService.searchUsers(q, page, size);
+
+        return ResponseEntity.status(response.isSuccess() ? 200 : 400).body(response);
+    }
+}
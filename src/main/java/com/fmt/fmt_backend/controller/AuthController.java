@@ -218,21 +218,10 @@ public class AuthController {
                     (responseCode = "401", description = "Not authenticated")
     })
 
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getCurrentUser() {
-
-        return authService.getCurrentUser()
-                .map(user -> {
-                    Map<String, Object> userInfo = Map.of(
-                            "id", user.getId(),
-                            "email", user.getEmail(),
-                            "firstName", user.getFirstName(),
-                            "lastName", user.getLastName(),
-                            "role", user.getUserRole(),
-                            "isEmailVerified", user.getIsEmailVerified(),
-                            "isMobileVerified", user.getIsMobileVerified()
-                    );
-                    return ResponseEntity.ok(ApiResponse.success("User info", userInfo));
-                })
+    public ResponseEntity<ApiResponse<CurrentUserResponse>> getCurrentUser() {
+
+        return authService.getCurrentUserInfo()
+                .map(userInfo -> ResponseEntity.ok(ApiResponse.success("User info", userInfo)))
                 .orElse(ResponseEntity.status(401)
                         .body(ApiResponse.error("Not authenticated")));
     }
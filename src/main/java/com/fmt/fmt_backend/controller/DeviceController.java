@@ -1,7 +1,10 @@
 package com.fmt.fmt_backend.controller;
 
 import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.dto.DeviceDisconnectOption;
+import com.fmt.fmt_backend.dto.DeviceResponse;
 import com.fmt.fmt_backend.entity.User;
+import com.fmt.fmt_backend.repository.UserRepository;
 import com.fmt.fmt_backend.service.AuthService;
 import com.fmt.fmt_backend.service.DeviceService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,7 +17,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -26,6 +28,7 @@ public class DeviceController {
 
     private final DeviceService deviceService;
     private final AuthService authService;
+    private final UserRepository userRepository;
     private final HttpServletRequest request;
 
     @GetMapping
@@ -33,12 +36,11 @@ public class DeviceController {
             summary = "Get All Devices",
             description = "Returns list of all devices associated with current user"
     )
-    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getMyDevices() {
+    public ResponseEntity<ApiResponse<List<DeviceResponse>>> getMyDevices() {
         log.info("📱 Fetching devices for current user");
-        User currentUser = authService.getCurrentUser()
-                .orElseThrow(() -> new RuntimeException("Not authenticated"));
+        User currentUser = currentUser();
 
-        List<Map<String, Object>> devices = deviceService.getUserDevices(currentUser, request);
+        List<DeviceResponse> devices = deviceService.getUserDevices(currentUser, request);
 
         return ResponseEntity.ok(ApiResponse.success("Devices retrieved", devices));
     }
@@ -54,8 +56,7 @@ public class DeviceController {
 
         log.info("🔒 Revoking device: {}", deviceId);
 
-        User currentUser = authService.getCurrentUser()
-                .orElseThrow(() -> new RuntimeException("Not authenticated"));
+        User currentUser = currentUser();
 
         ApiResponse<String> response = deviceService.revokeDevice(currentUser, deviceId);
 
@@ -67,12 +68,11 @@ public class DeviceController {
             summary = "Check Device Limit",
             description = "Check if user has exceeded device limit (max 2 devices)"
     )
-    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> checkDeviceLimit() {
+    public ResponseEntity<ApiResponse<List<DeviceDisconnectOption>>> checkDeviceLimit() {
         log.info("🔍 Checking device limit for current user");
-        User currentUser = authService.getCurrentUser()
-                .orElseThrow(() -> new RuntimeException("Not authenticated"));
+        User currentUser = currentUser();
 
-        ApiResponse<List<Map<String, Object>>> response = deviceService.handleDeviceLimit(currentUser, request);
+        ApiResponse<List<DeviceDisconnectOption>> response = deviceService.handleDeviceLimit(currentUser, request);
 
         return ResponseEntity.ok(response);
     }
@@ -87,8 +87,7 @@ public class DeviceController {
             @RequestParam UUID deviceId) {
         log.info("🔌 Disconnecting device: {}", deviceId);
 
-        User currentUser = authService.getCurrentUser()
-                .orElseThrow(() -> new RuntimeException("Not authenticated"));
+        User currentUser = currentUser();
 
         ApiResponse<String> response = deviceService.disconnectDevice(currentUser, deviceId);
 
@@ -105,14 +104,29 @@ public class DeviceController {
             @RequestParam UUID deviceId) {
         log.info("🎥 Starting streaming on device: {}", deviceId);
 
-        User currentUser = authService.getCurrentUser()
-                .orElseThrow(() -> new RuntimeException("Not authenticated"));
+        User currentUser = currentUser();
 
         ApiResponse<String> response = deviceService.startStreaming(currentUser, deviceId);
 
         return ResponseEntity.status(response.isSuccess() ? 200 : 400).body(response);
     }
 
+    @PostMapping("/streaming/heartbeat")
+    @Operation(
+            summary = "Streaming Heartbeat",
+            description = "Extend the streaming lease - call periodically while playing, otherwise the slot is released"
+    )
+    public ResponseEntity<ApiResponse<String>> streamingHeartbeat(
+            @Parameter(description = "Device ID that is streaming", required = true)
+            @RequestParam UUID deviceId) {
+
+        User currentUser = currentUser();
+
+        ApiResponse<String> response = deviceService.heartbeatStreaming(currentUser, deviceId);
+
+        return ResponseEntity.status(response.isSuccess() ? 200 : 409).body(response);
+    }
+
     @PostMapping("/streaming/stop")
     @Operation(
             summary = "Stop Streaming",
@@ -123,14 +137,20 @@ public class DeviceController {
             @RequestParam UUID deviceId) {
         log.info("⏹️ Stopping streaming on device: {}", deviceId);
 
-        User currentUser = authService.getCurrentUser()
-                .orElseThrow(() -> new RuntimeException("Not authenticated"));
+        User currentUser = currentUser();
 
         ApiResponse<String> response = deviceService.stopStreaming(currentUser, deviceId);
 
         return ResponseEntity.ok(response);
     }
 
+    // Id from the request's credential, no users row load - device operations only need the id
+    private User currentUser() {
+        UUID userId = authService.getCurrentUserId()
+                .orElseThrow(() -> new RuntimeException("Not authenticated"));
+        return userRepository.getReferenceById(userId);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse<String>> handleRuntimeException(RuntimeException e) {
         log.error("❌ Device controller error: {}", e.getMessage());
@@ -43,11 +43,8 @@ public class TokenController {
         log.info("🔄 Token refresh request received");
 
         try {
-            // Extract device fingerprint from current request
-            String deviceFingerprint = deviceService.generateDeviceFingerprint(request);
-
-            // Refresh the token
-            Map<String, Object> tokens = tokenService.refreshAccessToken(refreshToken, deviceFingerprint);
+            // Refresh the token (device is matched against the current request's fingerprint)
+            Map<String, Object> tokens = tokenService.refreshAccessToken(refreshToken, request);
 
             return ResponseEntity.ok(ApiResponse.success("Token refreshed successfully", tokens));
 
@@ -71,8 +68,7 @@ public class TokenController {
         log.info("🔄 Token rotation request received");
 
         try {
-            String deviceFingerprint = deviceService.generateDeviceFingerprint(request);
-            Map<String, Object> tokens = tokenService.rotateRefreshToken(refreshToken, deviceFingerprint);
+            Map<String, Object> tokens = tokenService.rotateRefreshToken(refreshToken, request);
 
             return ResponseEntity.ok(ApiResponse.success("Token rotated successfully", tokens));
 
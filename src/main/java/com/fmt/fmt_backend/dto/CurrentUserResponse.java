@@ -0,0 +1,19 @@
+package com.fmt.fmt_backend.dto;
+
+import com.fmt.fmt_backend.enums.UserRole;
+
+import java.util.UUID;
+
+/**
+ * GET /api/auth/me - filled straight from a JPQL constructor expression.
+ */
+public record CurrentUserResponse(
+        UUID id,
+        String email,
+        String firstName,
+        String lastName,
+        UserRole role,
+        Boolean isEmailVerified,
+        Boolean isMobileVerified
+) {
+}
@@ -0,0 +1,15 @@
+package com.fmt.fmt_backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A device the user may disconnect to get back under the device limit.
+ */
+public record DeviceDisconnectOption(
+        UUID deviceId,
+        String deviceName,
+        LocalDateTime lastActive,
+        String ipAddress       // Masked
+) {
+}
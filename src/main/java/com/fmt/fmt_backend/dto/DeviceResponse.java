@@ -0,0 +1,19 @@
+package com.fmt.fmt_backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of GET /api/devices.
+ */
+public record DeviceResponse(
+        UUID deviceId,
+        String deviceName,
+        String ipAddress,      // Masked
+        LocalDateTime lastActive,
+        LocalDateTime firstSeen,
+        boolean isStreaming,
+        String userAgent,      // Truncated for display
+        boolean isCurrentDevice
+) {
+}
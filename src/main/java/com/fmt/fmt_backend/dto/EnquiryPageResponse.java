@@ -0,0 +1,14 @@
+package com.fmt.fmt_backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class EnquiryPageResponse {
+    private List<EnquiryResponse> items;
+    private String nextCursor;  // Pass back as ?cursor= for the next page; null on the last page
+    private boolean hasMore;
+}
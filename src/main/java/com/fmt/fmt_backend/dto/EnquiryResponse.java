@@ -18,4 +18,6 @@ public class EnquiryResponse {
     private String message;
     private String status;
     private LocalDateTime createdAt;
+    private Integer submissionCount;
+    private LocalDateTime lastSubmittedAt;
 }
@@ -0,0 +1,19 @@
+package com.fmt.fmt_backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Builder
+public class EnquiryStatsResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private long total;
+    private Map<LocalDate, Long> perDay;
+    private Map<String, Long> byStatus;           // Current status of the enquiries received in the range
+    private Map<String, Long> byCity;
+    private Map<String, Long> byExperienceLevel;
+}
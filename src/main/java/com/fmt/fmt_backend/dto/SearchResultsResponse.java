@@ -0,0 +1,16 @@
+package com.fmt.fmt_backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SearchResultsResponse<T> {
+    private String query;
+    private int page;           // Zero-based
+    private int size;
+    private List<T> items;      // Best match first
+    private boolean hasMore;
+}
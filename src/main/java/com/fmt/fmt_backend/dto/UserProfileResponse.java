@@ -0,0 +1,29 @@
+package com.fmt.fmt_backend.dto;
+
+import com.fmt.fmt_backend.enums.Gender;
+import com.fmt.fmt_backend.enums.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * GET /api/user/profile - filled straight from a JPQL constructor expression.
+ */
+public record UserProfileResponse(
+        UUID id,
+        String email,
+        String firstName,
+        String lastName,
+        UserRole userRole,
+        Gender gender,
+        String phoneNumber,
+        String city,
+        String state,
+        String country,
+        String postalCode,
+        Boolean isEmailVerified,
+        Boolean isMobileVerified,
+        LocalDateTime lastLoginAt,
+        LocalDateTime createdAt
+) {
+}
@@ -1,17 +1,20 @@
 package com.fmt.fmt_backend.entity;
 
+import com.fmt.fmt_backend.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "devices")
+@DynamicUpdate  // UPDATE only the columns that changed, so concurrent writers of other columns aren't clobbered
 @Data
 public class DeviceEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,6 +38,11 @@ public class DeviceEntity {
 
     private boolean isStreaming = false; // For video streaming
 
+    private LocalDateTime streamingLeaseExpiresAt; // Streaming slot is held only while heartbeats keep extending this
+
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Version
+    private Long version; // Stale saves fail with an optimistic-lock conflict (see RetryOnConflict)
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.fmt.fmt_backend.entity;
 
+import com.fmt.fmt_backend.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -15,7 +16,7 @@ import java.util.UUID;
 public class EmailVerificationToken extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @OneToOne(fetch = FetchType.LAZY)  // One token per user
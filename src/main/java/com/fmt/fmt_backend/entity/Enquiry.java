@@ -1,5 +1,6 @@
 package com.fmt.fmt_backend.entity;
 
+import com.fmt.fmt_backend.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,7 +20,7 @@ import java.util.UUID;
 public class Enquiry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -49,6 +50,14 @@ public class Enquiry {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // Repeat submissions from the same mobile within the dedup window are folded into this row
+    @Builder.Default
+    @Column(name = "submission_count", nullable = false)
+    private Integer submissionCount = 1;
+
+    @Column(name = "last_submitted_at")
+    private LocalDateTime lastSubmittedAt;
+
     public enum ExperienceLevel {
         BEGINNER, INTERMEDIATE, ADVANCED
     }
@@ -1,5 +1,6 @@
 package com.fmt.fmt_backend.entity;
 
+import com.fmt.fmt_backend.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -11,7 +12,7 @@ import java.util.UUID;
 public class OtpEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "user_id")  // ✅ NEW: Optional - for logged in users
@@ -1,5 +1,6 @@
 package com.fmt.fmt_backend.entity;
 
+import com.fmt.fmt_backend.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,7 +20,7 @@ import java.util.UUID;
 public class RefreshTokenEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,7 +31,8 @@ public class RefreshTokenEntity {
     @JoinColumn(name = "device_id")
     private DeviceEntity device;  // NEW: Link to device
 
-    @Column(nullable = false, unique = true)
+    // Unique together with created_at (partition key) - see V10
+    @Column(nullable = false)
     private String token;
 
     @Column(nullable = false)
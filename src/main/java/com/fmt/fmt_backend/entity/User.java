@@ -1,16 +1,27 @@
 package com.fmt.fmt_backend.entity;
 
+import com.fmt.fmt_backend.config.HibernateCacheConfig;
+import com.fmt.fmt_backend.entity.id.UuidV7;
 import com.fmt.fmt_backend.enums.Gender;
 import com.fmt.fmt_backend.enums.UserRole;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS_REGION)
+@NaturalIdCache(region = HibernateCacheConfig.USERS_BY_EMAIL_REGION)
+@DynamicUpdate  // UPDATE only changed columns - lockout counters and login stamps are written elsewhere
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,7 +30,7 @@ import java.util.UUID;
 public class User extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "first_name", nullable = false)
@@ -28,6 +39,7 @@ public class User extends BaseEntity {
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
+    @NaturalId  // Immutable; findByEmail resolves through the natural-id cache
     @Column(unique = true, nullable = false)
     private String email;
 
@@ -82,6 +94,9 @@ public class User extends BaseEntity {
     @Column(name = "last_password_change_at")
     private LocalDateTime lastPasswordChangeAt;
 
+    @Version
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         if (userRole == null) {
@@ -0,0 +1,73 @@
+package com.fmt.fmt_backend.entity.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * Monotonic UUIDv7 ids (RFC 9562): 48-bit Unix millis, 12-bit counter, 62 random bits.
+ *
+ * Random v4 keys land all over the primary-key B-tree, so every insert dirties a different
+ * leaf page. v7 keys sort by creation time and inserts append to the right edge of the index.
+ *
+ * The millisecond and counter are packed into one AtomicLong and advanced with CAS, so ids from
+ * this node are strictly increasing. Each new millisecond starts the counter at a random value in
+ * the lower half of its range; if it overflows, the carry moves into the timestamp bits (the
+ * clock "borrows" from the next millisecond) instead of repeating values. A clock that steps
+ * backwards keeps using the last timestamp for the same reason.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_SEED_MASK = (1L << (COUNTER_BITS - 1)) - 1; // Leave headroom to count up
+
+    private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    // Clock passed in so tests can step it backwards
+    static UUID next(long nowMillis) {
+        long state = nextState(nowMillis);
+        long millis = state >>> COUNTER_BITS;
+        long counter = state & ((1L << COUNTER_BITS) - 1);
+
+        long msb = (millis << 16) | 0x7000L | counter;                           // time_high..ver 7 | rand_a
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // variant 10 | rand_b
+        return new UUID(msb, lsb);
+    }
+
+    private static long nextState(long now) {
+        while (true) {
+            long previous = LAST_TIMESTAMP_AND_COUNTER.get();
+
+            long next = now > (previous >>> COUNTER_BITS)
+                    ? (now << COUNTER_BITS) | (RANDOM.nextInt() & COUNTER_SEED_MASK)
+                    : previous + 1; // Same (or earlier) millisecond - count up, carrying into the timestamp
+
+            if (LAST_TIMESTAMP_AND_COUNTER.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return INSERT_ONLY;
+    }
+}
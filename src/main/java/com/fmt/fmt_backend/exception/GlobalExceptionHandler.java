@@ -2,6 +2,7 @@ package com.fmt.fmt_backend.exception;
 
 import com.fmt.fmt_backend.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -74,6 +75,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.LOCKED).body(response);
     }
 
+    // Handle saturated resources (e.g. password hashing pool) - fail fast instead of queueing
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponse<String>> handleServiceOverloadedException(
+            ServiceOverloadedException ex) {
+
+        log.warn("🚦 Service overloaded: {}", ex.getMessage());
+
+        ApiResponse<String> response = ApiResponse.error(ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     // Handle all other unexpected errors
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<String>> handleGlobalException(
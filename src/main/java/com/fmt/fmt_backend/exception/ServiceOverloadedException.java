@@ -0,0 +1,18 @@
+package com.fmt.fmt_backend.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a bounded resource (e.g. the password hashing pool) is saturated.
+ * Mapped to 503 with a Retry-After header by GlobalExceptionHandler.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
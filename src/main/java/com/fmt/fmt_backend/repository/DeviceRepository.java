@@ -2,11 +2,16 @@ package com.fmt.fmt_backend.repository;
 
 import com.fmt.fmt_backend.entity.DeviceEntity;
 import com.fmt.fmt_backend.entity.User;
+import com.fmt.fmt_backend.repository.projection.DeactivatedDevice;
+import com.fmt.fmt_backend.repository.projection.DeviceView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,13 +21,72 @@ public interface DeviceRepository extends JpaRepository<DeviceEntity, UUID> {
 
     List<DeviceEntity> findByUserAndIsActiveTrue(User user);
 
+    // Session registry hydration: only the columns it keeps, without loading entities.
+    // Read-write on purpose so it stays on the primary - a lagging replica row would be cached indefinitely.
+    @Transactional
+    @Query("SELECT d.id AS id, d.deviceName AS deviceName, d.deviceFingerprint AS deviceFingerprint, " +
+            "d.ipAddress AS ipAddress, d.userAgent AS userAgent, d.lastActiveAt AS lastActiveAt, " +
+            "d.firstSeenAt AS firstSeenAt, d.isStreaming AS isStreaming, " +
+            "d.streamingLeaseExpiresAt AS streamingLeaseExpiresAt " +
+            "FROM DeviceEntity d WHERE d.user.id = :userId AND d.isActive = true")
+    List<DeviceView> findActiveDeviceViews(@Param("userId") UUID userId);
+
     Optional<DeviceEntity> findByUserAndDeviceFingerprint(User user, String fingerprint);
 
-    long countByUserAndIsActiveTrue(User user);
+    // State-changing bulk updates bump the version so a concurrent stale entity save conflicts instead of
+    // overwriting; the heartbeat renewal only moves the expiry and leaves it alone.
+
+    // Serialises lease acquisition per user across nodes until the transaction ends. Without it the COUNT
+    // guard below is not enough: under READ COMMITTED two devices can both see a free slot and both UPDATE.
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('device_streaming'), " +
+            "hashtext(CAST(:userId AS text)))) l", nativeQuery = true)
+    Integer lockStreamingSlots(@Param("userId") UUID userId);
+
+    // Take a streaming lease in one conditional statement - only succeeds while the user has a free slot.
+    // Call after lockStreamingSlots in the same transaction.
+    @Modifying
+    @Query("UPDATE DeviceEntity d SET d.isStreaming = true, d.streamingLeaseExpiresAt = :leaseUntil, " +
+            "d.version = d.version + 1 " +
+            "WHERE d.id = :deviceId AND d.user.id = :userId AND d.isActive = true " +
+            "AND (SELECT COUNT(o) FROM DeviceEntity o WHERE o.user.id = :userId AND o.id <> :deviceId " +
+            "AND o.isStreaming = true AND o.streamingLeaseExpiresAt > :now) < :maxSessions")
+    int acquireStreamingLease(@Param("userId") UUID userId,
+                              @Param("deviceId") UUID deviceId,
+                              @Param("maxSessions") long maxSessions,
+                              @Param("now") LocalDateTime now,
+                              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE DeviceEntity d SET d.streamingLeaseExpiresAt = :leaseUntil " +
+            "WHERE d.id = :deviceId AND d.user.id = :userId AND d.isStreaming = true " +
+            "AND d.streamingLeaseExpiresAt > :now")
+    int renewStreamingLease(@Param("userId") UUID userId,
+                            @Param("deviceId") UUID deviceId,
+                            @Param("now") LocalDateTime now,
+                            @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Reaper: free slots whose player stopped sending heartbeats (NULL lease = set before leases existed)
+    @Modifying
+    @Query("UPDATE DeviceEntity d SET d.isStreaming = false, d.streamingLeaseExpiresAt = null, " +
+            "d.version = d.version + 1 " +
+            "WHERE d.isStreaming = true AND (d.streamingLeaseExpiresAt IS NULL OR d.streamingLeaseExpiresAt <= :now)")
+    int releaseExpiredStreamingLeases(@Param("now") LocalDateTime now);
 
-    long countByUserAndIsStreamingTrue(User user);
+    // Inactive-device sweep: deactivate one keyset-bounded chunk and report what was touched
+    @Transactional
+    @Query(value = "UPDATE devices d SET is_active = false, is_streaming = false, streaming_lease_expires_at = NULL, " +
+            "version = d.version + 1 " +
+            "FROM (SELECT id FROM devices " +
+            "      WHERE is_active = true AND last_active_at < :cutoff AND id > :afterId " +
+            "      ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED) stale " +
+            "WHERE d.id = stale.id " +
+            "RETURNING d.id AS id, d.user_id AS userId", nativeQuery = true)
+    List<DeactivatedDevice> deactivateInactiveBatch(@Param("cutoff") LocalDateTime cutoff,
+                                                    @Param("afterId") UUID afterId,
+                                                    @Param("batchSize") int batchSize);
 
     @Modifying
-    @Query("UPDATE DeviceEntity d SET d.isActive = false WHERE d.user = :user AND d.id NOT IN :excludeIds")
+    @Query("UPDATE DeviceEntity d SET d.isActive = false, d.version = d.version + 1 " +
+            "WHERE d.user = :user AND d.id NOT IN :excludeIds")
     void deactivateOtherDevices(@Param("user") User user, @Param("excludeIds") List<UUID> excludeIds);
 }
@@ -2,11 +2,11 @@ package com.fmt.fmt_backend.repository;
 
 import com.fmt.fmt_backend.entity.Enquiry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -14,15 +14,48 @@ import java.util.UUID;
 @Repository
 public interface EnquiryRepository extends JpaRepository<Enquiry, UUID> {
 
-    List<Enquiry> findByStatus(Enquiry.EnquiryStatus status);
+    // Must match the idx_enquiries_search_trgm expression (V9) character for character
+    String SEARCH_DOCUMENT = "(name || ' ' || COALESCE(city, '') || ' ' || COALESCE(area_of_interest, '') || ' ' || " +
+            "COALESCE(message, ''))";
 
-    @Query("SELECT e FROM Enquiry e WHERE e.createdAt BETWEEN :start AND :end")
-    List<Enquiry> findEnquiriesBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    // Admin listing: keyset pages, newest first. (created_at, id) < (cursor) is one range scan on
+    // idx_enquiries_created_id however deep the page is - no OFFSET.
+    @Query(value = "SELECT * FROM enquiries WHERE created_at >= :from AND created_at < :to " +
+            "AND (created_at, id) < (:beforeCreatedAt, :beforeId) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Enquiry> findPageBefore(@Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                 @Param("beforeId") UUID beforeId,
+                                 @Param("limit") int limit);
 
-    // ✅ FIXED: Use BETWEEN with start and end of day
-    @Query("SELECT COUNT(e) FROM Enquiry e WHERE e.createdAt BETWEEN :startOfDay AND :endOfDay")
-    long countTodayEnquiries(@Param("startOfDay") LocalDateTime startOfDay,
-                             @Param("endOfDay") LocalDateTime endOfDay);
+    @Query(value = "SELECT * FROM enquiries WHERE status = :status AND created_at >= :from AND created_at < :to " +
+            "AND (created_at, id) < (:beforeCreatedAt, :beforeId) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Enquiry> findPageByStatusBefore(@Param("status") String status,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                         @Param("beforeId") UUID beforeId,
+                                         @Param("limit") int limit);
+
+    // Admin search: substring (ILIKE) or fuzzy word match, both bitmap scans of the trigram index,
+    // best word similarity first. pattern is the LIKE-escaped query wrapped in %.
+    @Query(value = "SELECT * FROM enquiries WHERE " + SEARCH_DOCUMENT + " ILIKE :pattern " +
+            "OR :query <% " + SEARCH_DOCUMENT + " " +
+            "ORDER BY word_similarity(:query, " + SEARCH_DOCUMENT + ") DESC, created_at DESC, id DESC " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Enquiry> search(@Param("query") String query,
+                         @Param("pattern") String pattern,
+                         @Param("limit") int limit,
+                         @Param("offset") int offset);
 
     List<Enquiry> findByMobile(String mobile);
-}
\ No newline at end of file
+
+    // Compare-and-set: 0 rows means someone else moved the enquiry since it was read
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Enquiry e SET e.status = :to WHERE e.id = :id AND e.status = :from")
+    int updateStatusIfUnchanged(@Param("id") UUID id,
+                                @Param("from") Enquiry.EnquiryStatus from,
+                                @Param("to") Enquiry.EnquiryStatus to);
+}
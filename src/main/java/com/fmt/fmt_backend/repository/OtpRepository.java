@@ -2,11 +2,11 @@ package com.fmt.fmt_backend.repository;
 
 import com.fmt.fmt_backend.entity.OtpEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,12 +29,10 @@ public interface OtpRepository extends JpaRepository<OtpEntity, UUID> {
     Optional<OtpEntity> findTopByIdentifierAndTypeAndVerifiedTrueOrderByCreatedAtDesc(
             String identifier, OtpEntity.OtpType type);
 
-    @Modifying
-    @Query("DELETE FROM OtpEntity o WHERE o.expiresAt < :now")
-    void deleteExpiredOtps(@Param("now") LocalDateTime now);
-
     long countByIdentifierAndCreatedAtAfter(String identifier, LocalDateTime after);
 
+    long countByIdentifierInAndCreatedAtAfter(Collection<String> identifiers, LocalDateTime after);
+
     @Query("SELECT COUNT(o) FROM OtpEntity o WHERE o.ipAddress = :ip AND o.createdAt > :since")
     long countByIpAddressAndCreatedAtAfter(@Param("ip") String ip, @Param("since") LocalDateTime since);
 }
\ No newline at end of file
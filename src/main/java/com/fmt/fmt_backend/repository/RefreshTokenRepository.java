@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,8 +31,9 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity
     void revokeAllDeviceTokens(@Param("deviceId") UUID deviceId, @Param("now") LocalDateTime now);
 
     @Modifying
-    @Query("DELETE FROM RefreshTokenEntity r WHERE r.expiresAt < :now OR r.revoked = true")
-    void deleteExpiredAndRevoked(@Param("now") LocalDateTime now);
+    @Query("UPDATE RefreshTokenEntity r SET r.revoked = true, r.revokedAt = :now " +
+            "WHERE r.device.id IN :deviceIds AND r.revoked = false")
+    int revokeTokensForDevices(@Param("deviceIds") Collection<UUID> deviceIds, @Param("now") LocalDateTime now);
 
     long countByUserAndRevokedFalse(User user);
 }
\ No newline at end of file
@@ -1,43 +1,88 @@
 package com.fmt.fmt_backend.repository;
 
+import com.fmt.fmt_backend.dto.CurrentUserResponse;
+import com.fmt.fmt_backend.dto.UserProfileResponse;
 import com.fmt.fmt_backend.entity.User;
+import com.fmt.fmt_backend.repository.projection.FailedLogin;
+import com.fmt.fmt_backend.repository.projection.LoginCredential;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository  // Tells Spring this is a repository component
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
     // Spring Data JPA automatically implements these methods!
+    // findByEmail lives in UserRepositoryCustom (natural-id cache lookup)
 
-    // Find user by email
-    Optional<User> findByEmail(String email);
+    // Must match the idx_users_search_trgm expression (V9) character for character
+    String SEARCH_DOCUMENT = "(first_name || ' ' || last_name || ' ' || email || ' ' || COALESCE(phone_number, ''))";
 
     // Check if email exists
     Boolean existsByEmail(String email);
 
-    // Custom query: increment failed attempts
-    @Modifying  // This query modifies data
-    @Query("UPDATE User u SET u.failedLoginAttempts = u.failedLoginAttempts + 1 WHERE u.email = :email")
-    void incrementFailedAttempts(@Param("email") String email);
+    // Login path: only the credential columns, one round trip. Deliberately not in the second-level
+    // cache: password, lockout and isActive must be current on every instance, not just this one.
+    @Query("SELECT u.id AS id, u.email AS email, u.password AS password, u.phoneNumber AS phoneNumber, " +
+            "u.isActive AS isActive, u.userRole AS userRole, u.failedLoginAttempts AS failedLoginAttempts, " +
+            "u.accountLockedUntil AS accountLockedUntil FROM User u WHERE u.email = :email")
+    Optional<LoginCredential> findLoginCredentialByEmail(@Param("email") String email);
+
+    // Read-only endpoints: build the response records in the query, no entity hydration
+    @Query("SELECT new com.fmt.fmt_backend.dto.UserProfileResponse(u.id, u.email, u.firstName, u.lastName, " +
+            "u.userRole, u.gender, u.phoneNumber, u.city, u.state, u.country, u.postalCode, " +
+            "u.isEmailVerified, u.isMobileVerified, u.lastLoginAt, u.createdAt) FROM User u WHERE u.id = :id")
+    Optional<UserProfileResponse> findProfileById(@Param("id") UUID id);
+
+    @Query("SELECT new com.fmt.fmt_backend.dto.CurrentUserResponse(u.id, u.email, u.firstName, u.lastName, " +
+            "u.userRole, u.isEmailVerified, u.isMobileVerified) FROM User u WHERE u.id = :id")
+    Optional<CurrentUserResponse> findCurrentUserById(@Param("id") UUID id);
+
+    // Admin search by name, email or phone - same shape as EnquiryRepository.search
+    @Query(value = "SELECT * FROM users WHERE " + SEARCH_DOCUMENT + " ILIKE :pattern " +
+            "OR :query <% " + SEARCH_DOCUMENT + " " +
+            "ORDER BY word_similarity(:query, " + SEARCH_DOCUMENT + ") DESC, created_at DESC, id DESC " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<User> search(@Param("query") String query,
+                      @Param("pattern") String pattern,
+                      @Param("limit") int limit,
+                      @Param("offset") int offset);
+
+    // Credential writes return the affected id (none for an unknown email) so UserCacheEvictor can drop
+    // exactly that user; all of them bump the version.
+
+    // Custom query: record a failed attempt and lock the account once the threshold is reached - one statement
+    @Transactional
+    @Query(value = "UPDATE users SET " +
+            "failed_login_attempts = COALESCE(failed_login_attempts, 0) + 1, version = version + 1, " +
+            "account_locked_until = CASE WHEN COALESCE(failed_login_attempts, 0) + 1 >= :maxAttempts " +
+            "THEN CAST(:lockUntil AS timestamp) ELSE account_locked_until END " +
+            "WHERE email = :email " +
+            "RETURNING id AS id, failed_login_attempts AS failedLoginAttempts", nativeQuery = true)
+    Optional<FailedLogin> recordFailedAttempt(@Param("email") String email,
+                                              @Param("maxAttempts") int maxAttempts,
+                                              @Param("lockUntil") LocalDateTime lockUntil);
 
     // Custom query: reset failed attempts
-    @Modifying
-    @Query("UPDATE User u SET u.failedLoginAttempts = 0, u.accountLockedUntil = null WHERE u.email = :email")
-    void resetFailedAttempts(@Param("email") String email);
-
-    // Custom query: lock account
-    @Modifying
-    @Query("UPDATE User u SET u.accountLockedUntil = :lockUntil WHERE u.email = :email")
-    void lockAccount(@Param("email") String email, @Param("lockUntil") LocalDateTime lockUntil);
+    @Transactional
+    @Query(value = "UPDATE users SET failed_login_attempts = 0, account_locked_until = NULL, version = version + 1 " +
+            "WHERE email = :email RETURNING id", nativeQuery = true)
+    Optional<UUID> resetFailedAttempts(@Param("email") String email);
+
+    // Custom query: replace password hash (used for BCrypt cost upgrades on login)
+    @Transactional
+    @Query(value = "UPDATE users SET password = :password, version = version + 1 WHERE email = :email RETURNING id",
+            nativeQuery = true)
+    Optional<UUID> updatePassword(@Param("email") String email, @Param("password") String password);
 }
 
 // SPRING DATA JPA MAGIC:
-// findByEmail → SELECT * FROM users WHERE email = ?
+// findByEmail → natural-id cache, else SELECT * FROM users WHERE email = ?
 // existsByEmail → SELECT COUNT(*) > 0 FROM users WHERE email = ?
 // save(user) → INSERT or UPDATE
 // findById(id) → SELECT * FROM users WHERE id = ?
@@ -0,0 +1,11 @@
+package com.fmt.fmt_backend.repository;
+
+import com.fmt.fmt_backend.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    // Natural-id lookup: served from the second-level cache when the user is already there
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,27 @@
+package com.fmt.fmt_backend.repository;
+
+import com.fmt.fmt_backend.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Replaces the derived findByEmail query: bySimpleNaturalId checks the email -> id
+ * cross-reference and then the entity region before touching the database.
+ */
+@Transactional(readOnly = true)
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+}
@@ -0,0 +1,13 @@
+package com.fmt.fmt_backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * A device switched off by the inactive-device sweep (returned from UPDATE ... RETURNING).
+ */
+public interface DeactivatedDevice {
+
+    UUID getId();
+
+    UUID getUserId();
+}
@@ -0,0 +1,28 @@
+package com.fmt.fmt_backend.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The device columns the session registry keeps in memory - no User association, no entity snapshot.
+ */
+public interface DeviceView {
+
+    UUID getId();
+
+    String getDeviceName();
+
+    String getDeviceFingerprint();
+
+    String getIpAddress();
+
+    String getUserAgent();
+
+    LocalDateTime getLastActiveAt();
+
+    LocalDateTime getFirstSeenAt();
+
+    boolean getIsStreaming();
+
+    LocalDateTime getStreamingLeaseExpiresAt();
+}
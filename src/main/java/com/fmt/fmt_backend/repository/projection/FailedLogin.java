@@ -0,0 +1,13 @@
+package com.fmt.fmt_backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * The user a failed login was recorded against and their new attempt count (UPDATE ... RETURNING).
+ */
+public interface FailedLogin {
+
+    UUID getId();
+
+    Integer getFailedLoginAttempts();
+}
@@ -0,0 +1,33 @@
+package com.fmt.fmt_backend.repository.projection;
+
+import com.fmt.fmt_backend.enums.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns needed to authenticate a user - loaded once per login and shared
+ * with the authentication provider instead of hydrating the full User entity.
+ */
+public interface LoginCredential {
+
+    UUID getId();
+
+    String getEmail();
+
+    String getPassword();
+
+    String getPhoneNumber();
+
+    Boolean getIsActive();
+
+    UserRole getUserRole();
+
+    Integer getFailedLoginAttempts();
+
+    LocalDateTime getAccountLockedUntil();
+
+    default boolean isLocked() {
+        return getAccountLockedUntil() != null && getAccountLockedUntil().isAfter(LocalDateTime.now());
+    }
+}
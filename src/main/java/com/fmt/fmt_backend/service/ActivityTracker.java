@@ -0,0 +1,174 @@
+package com.fmt.fmt_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for "last seen" timestamps.
+ *
+ * Token refreshes and logins only need to bump device.last_active_at / user.last_login_at,
+ * so instead of saving the whole entity on every request we keep the newest value per id
+ * in memory and flush everything every few seconds with one UPDATE ... FROM (VALUES ...)
+ * per chunk. Repeated hits on the same device collapse into a single row write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityTracker {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DeviceSessionRegistry sessionRegistry;
+    private final UserCacheEvictor userCacheEvictor;
+
+    private final ConcurrentHashMap<UUID, LocalDateTime> deviceActivity = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, LoginActivity> userLogins = new ConcurrentHashMap<>();
+
+    @Value("${activity.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private record LoginActivity(LocalDateTime at, String ip) {
+        LoginActivity newest(LoginActivity other) {
+            return other.at.isAfter(at) ? other : this;
+        }
+    }
+
+    // ========== RECORDING ==========
+
+    public void recordDeviceActivity(UUID userId, UUID deviceId, LocalDateTime at) {
+        deviceActivity.merge(deviceId, at, (current, next) -> next.isAfter(current) ? next : current);
+        sessionRegistry.touch(userId, deviceId, at); // Listings read the registry, so they stay current
+    }
+
+    public void recordLogin(UUID userId, LocalDateTime at, String ip) {
+        userLogins.merge(userId, new LoginActivity(at, ip), LoginActivity::newest);
+    }
+
+    // ========== FLUSHING ==========
+
+    @Scheduled(fixedDelayString = "${activity.flush-interval-ms:5000}")
+    public void flush() {
+        long start = System.currentTimeMillis();
+
+        int devices = flushDeviceActivity();
+        int users = flushUserLogins();
+
+        if (devices > 0 || users > 0) {
+            log.debug("💾 Flushed activity for {} device(s) and {} user(s) in {} ms",
+                    devices, users, System.currentTimeMillis() - start);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("💾 Flushing pending activity before shutdown");
+        flush();
+    }
+
+    private int flushDeviceActivity() {
+        Map<UUID, LocalDateTime> pending = drain(deviceActivity);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<UUID, LocalDateTime>> entries = new ArrayList<>(pending.entrySet());
+        for (int from = 0; from < entries.size(); from += flushBatchSize) {
+            List<Map.Entry<UUID, LocalDateTime>> chunk =
+                    entries.subList(from, Math.min(from + flushBatchSize, entries.size()));
+
+            List<Object> params = new ArrayList<>(chunk.size() * 2);
+            for (Map.Entry<UUID, LocalDateTime> entry : chunk) {
+                params.add(entry.getKey());
+                params.add(Timestamp.valueOf(entry.getValue()));
+            }
+
+            String sql = "UPDATE devices d SET last_active_at = GREATEST(d.last_active_at, v.ts) " +
+                    "FROM (VALUES " + valuePlaceholders(chunk.size(), "(CAST(? AS uuid), CAST(? AS timestamp))") + ") " +
+                    "AS v(id, ts) WHERE d.id = v.id";
+
+            try {
+                jdbcTemplate.update(sql, params.toArray());
+            } catch (Exception e) {
+                log.error("❌ Failed to flush device activity ({} rows), will retry: {}", chunk.size(), e.getMessage());
+                chunk.forEach(entry -> deviceActivity.merge(entry.getKey(), entry.getValue(),
+                        (current, failed) -> failed.isAfter(current) ? failed : current));
+            }
+        }
+        return entries.size();
+    }
+
+    private int flushUserLogins() {
+        Map<UUID, LoginActivity> pending = drain(userLogins);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<UUID, LoginActivity>> entries = new ArrayList<>(pending.entrySet());
+        for (int from = 0; from < entries.size(); from += flushBatchSize) {
+            List<Map.Entry<UUID, LoginActivity>> chunk =
+                    entries.subList(from, Math.min(from + flushBatchSize, entries.size()));
+
+            List<Object> params = new ArrayList<>(chunk.size() * 3);
+            for (Map.Entry<UUID, LoginActivity> entry : chunk) {
+                params.add(entry.getKey());
+                params.add(Timestamp.valueOf(entry.getValue().at()));
+                params.add(entry.getValue().ip());
+            }
+
+            String sql = "UPDATE users u SET last_login_at = v.ts, last_login_ip = v.ip " +
+                    "FROM (VALUES " + valuePlaceholders(chunk.size(),
+                    "(CAST(? AS uuid), CAST(? AS timestamp), CAST(? AS varchar))") + ") " +
+                    "AS v(id, ts, ip) WHERE u.id = v.id " +
+                    "AND (u.last_login_at IS NULL OR u.last_login_at < v.ts)";
+
+            try {
+                jdbcTemplate.update(sql, params.toArray());
+                userCacheEvictor.evictUsers(chunk.stream().map(Map.Entry::getKey).toList());
+            } catch (Exception e) {
+                log.error("❌ Failed to flush login activity ({} rows), will retry: {}", chunk.size(), e.getMessage());
+                chunk.forEach(entry -> userLogins.merge(entry.getKey(), entry.getValue(), LoginActivity::newest));
+            }
+        }
+        return entries.size();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /**
+     * Remove each pending entry atomically, so a value recorded mid-flush stays for the next round.
+     */
+    private static <V> Map<UUID, V> drain(ConcurrentHashMap<UUID, V> source) {
+        Map<UUID, V> drained = new HashMap<>();
+        for (UUID key : source.keySet()) {
+            V value = source.remove(key);
+            if (value != null) {
+                drained.put(key, value);
+            }
+        }
+        return drained;
+    }
+
+    private static String valuePlaceholders(int rows, String row) {
+        StringBuilder sb = new StringBuilder(rows * (row.length() + 2));
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,293 @@
+package com.fmt.fmt_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fmt.fmt_backend.config.ReplicaRead;
+import com.fmt.fmt_backend.config.ReplicaReads;
+import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.dto.EnquiryPageResponse;
+import com.fmt.fmt_backend.dto.EnquiryResponse;
+import com.fmt.fmt_backend.entity.Enquiry;
+import com.fmt.fmt_backend.repository.EnquiryRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Admin access to enquiries: keyset-paginated listing, status updates and a streaming CSV / NDJSON export.
+ *
+ * Neither read path ever holds more than one page (listing) or one fetch (export) of rows in memory.
+ * Both are read-only and tolerate lag, so with a replica configured they run there.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminEnquiryService {
+
+    // Open-ended bounds / first-page cursor, so every page is the same two queries
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    private static final String EXPORT_COLUMNS = "id, created_at, name, mobile, city, experience_level, " +
+            "area_of_interest, message, status, submission_count, last_submitted_at";
+    private static final String CSV_HEADER = "id,created_at,name,mobile,city,experience_level,area_of_interest,message,status," +
+            "submission_count,last_submitted_at";
+
+    private final EnquiryRepository enquiryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final EnquiryStatsService enquiryStatsService;
+
+    @Value("${admin.enquiries.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${admin.enquiries.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${admin.enquiries.export-fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Getter
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    private record Cursor(LocalDateTime createdAt, UUID id) {
+    }
+
+    // ========== LISTING ==========
+
+    /**
+     * One page, newest first. from is inclusive, to exclusive; both optional.
+     */
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public ApiResponse<EnquiryPageResponse> listEnquiries(Enquiry.EnquiryStatus status,
+                                                          LocalDateTime from,
+                                                          LocalDateTime to,
+                                                          String cursor,
+                                                          Integer size) {
+        Cursor position = cursor == null || cursor.isBlank() ? new Cursor(LATEST, MAX_ID) : decodeCursor(cursor);
+        if (position == null) {
+            return ApiResponse.error("Invalid cursor");
+        }
+
+        int pageSize = Math.min(Math.max(size == null ? defaultPageSize : size, 1), maxPageSize);
+        LocalDateTime lower = from != null ? from : EARLIEST;
+        LocalDateTime upper = to != null ? to : LATEST;
+
+        // One extra row tells us whether there is a next page without a COUNT
+        List<Enquiry> rows = status == null
+                ? enquiryRepository.findPageBefore(lower, upper, position.createdAt(), position.id(), pageSize + 1)
+                : enquiryRepository.findPageByStatusBefore(status.name(), lower, upper,
+                        position.createdAt(), position.id(), pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Enquiry> page = hasMore ? rows.subList(0, pageSize) : rows;
+        Enquiry last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return ApiResponse.success("Enquiries retrieved", EnquiryPageResponse.builder()
+                .items(page.stream().map(EnquiryService::mapToResponse).toList())
+                .nextCursor(hasMore ? encodeCursor(last.getCreatedAt(), last.getId()) : null)
+                .hasMore(hasMore)
+                .build());
+    }
+
+    // ========== STATUS ==========
+
+    @Transactional
+    public ApiResponse<EnquiryResponse> updateStatus(UUID id, Enquiry.EnquiryStatus status) {
+        Enquiry enquiry = enquiryRepository.findById(id).orElse(null);
+        if (enquiry == null) {
+            return ApiResponse.error("Enquiry not found");
+        }
+
+        Enquiry.EnquiryStatus previous = enquiry.getStatus();
+        if (previous != status) {
+            // Only the admin whose update lands moves the stats - two concurrent moves from NEW can't both count
+            if (enquiryRepository.updateStatusIfUnchanged(id, previous, status) == 0) {
+                log.warn("⚠️ Enquiry {} changed while moving it from {} to {}", id, previous, status);
+                return ApiResponse.error("Enquiry status was changed by someone else, please reload and retry");
+            }
+            enquiry.setStatus(status);
+            enquiryStatsService.recordStatusChange(enquiry, previous, status);
+            log.info("✅ Enquiry {} moved from {} to {}", id, previous, status);
+        }
+
+        return ApiResponse.success("Enquiry status updated", EnquiryService.mapToResponse(enquiry));
+    }
+
+    // ========== EXPORT ==========
+
+    /**
+     * Streams every matching enquiry through a server-side cursor (fixed fetch size, read-only
+     * transaction) straight into the response. Runs on the MVC async executor when the body is written.
+     */
+    public StreamingResponseBody export(ExportFormat format,
+                                        Enquiry.EnquiryStatus status,
+                                        LocalDateTime from,
+                                        LocalDateTime to) {
+        String sql = "SELECT " + EXPORT_COLUMNS + " FROM enquiries WHERE created_at >= ? AND created_at < ?"
+                + (status != null ? " AND status = ?" : "")
+                + " ORDER BY created_at DESC, id DESC";
+        LocalDateTime lower = from != null ? from : EARLIEST;
+        LocalDateTime upper = to != null ? to : LATEST;
+
+        return outputStream -> {
+            long start = System.currentTimeMillis();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            // The Postgres driver only uses a cursor (instead of buffering the whole result) inside a transaction
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            Boolean previous = ReplicaReads.enter(); // Runs on the async executor, outside any @ReplicaRead call
+            long exported;
+            try {
+                exported = readOnly.execute(tx -> {
+                    long[] count = {0};
+                    jdbcTemplate.query(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(sql,
+                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(exportFetchSize);
+                        statement.setTimestamp(1, Timestamp.valueOf(lower));
+                        statement.setTimestamp(2, Timestamp.valueOf(upper));
+                        if (status != null) {
+                            statement.setString(3, status.name());
+                        }
+                        return statement;
+                    }, (ResultSet rs) -> {
+                        writeRow(writer, format, toResponse(rs));
+                        if (++count[0] % exportFetchSize == 0) {
+                            flush(writer); // Push each fetched chunk to the client as we go
+                        }
+                    });
+                    return count[0];
+                });
+            } finally {
+                ReplicaReads.restore(previous);
+            }
+
+            writer.flush();
+            log.info("📤 Exported {} enquiries as {} in {} ms", exported, format, System.currentTimeMillis() - start);
+        };
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void writeRow(Writer writer, ExportFormat format, EnquiryResponse row) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(row));
+            } else {
+                writer.write(String.join(",",
+                        csv(String.valueOf(row.getId())),
+                        csv(row.getCreatedAt() != null ? row.getCreatedAt().toString() : null),
+                        csv(row.getName()),
+                        csv(row.getMobile()),
+                        csv(row.getCity()),
+                        csv(row.getExperienceLevel()),
+                        csv(row.getAreaOfInterest()),
+                        csv(row.getMessage()),
+                        csv(row.getStatus()),
+                        csv(String.valueOf(row.getSubmissionCount())),
+                        csv(row.getLastSubmittedAt() != null ? row.getLastSubmittedAt().toString() : null)));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Client went away - aborts the query and closes the cursor
+        }
+    }
+
+    private static void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static EnquiryResponse toResponse(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp lastSubmittedAt = rs.getTimestamp("last_submitted_at");
+        return EnquiryResponse.builder()
+                .id(rs.getObject("id", UUID.class))
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .name(rs.getString("name"))
+                .mobile(rs.getString("mobile"))
+                .city(rs.getString("city"))
+                .experienceLevel(rs.getString("experience_level"))
+                .areaOfInterest(rs.getString("area_of_interest"))
+                .message(rs.getString("message"))
+                .status(rs.getString("status"))
+                .submissionCount(rs.getInt("submission_count"))
+                .lastSubmittedAt(lastSubmittedAt != null ? lastSubmittedAt.toLocalDateTime() : null)
+                .build();
+    }
+
+    /**
+     * RFC 4180 quoting, plus a leading quote on values a spreadsheet would run as a formula
+     * (enquiries are public input).
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        String safe = !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (safe.contains(",") || safe.contains("\"") || safe.contains("\n") || safe.contains("\r")) {
+            return "\"" + safe.replace("\"", "\"\"") + "\"";
+        }
+        return safe;
+    }
+
+    static String encodeCursor(LocalDateTime createdAt, UUID id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            return new Cursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            log.warn("❌ Rejected enquiry cursor: {}", cursor);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.config.ReplicaRead;
+import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.dto.EnquiryResponse;
+import com.fmt.fmt_backend.dto.SearchResultsResponse;
+import com.fmt.fmt_backend.dto.UserProfileResponse;
+import com.fmt.fmt_backend.entity.User;
+import com.fmt.fmt_backend.repository.EnquiryRepository;
+import com.fmt.fmt_backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Admin console search over enquiries (name, city, area of interest, message) and users
+ * (name, email, phone), backed by the V9 pg_trgm GIN indexes.
+ *
+ * A row matches if it contains the query as a substring or has a word close to it (typos), and
+ * results are ranked by word similarity. Pages are offset-based - ranking has no stable keyset -
+ * so depth is capped at max-results; refine the query instead of paging further.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminSearchService {
+
+    // Shorter queries have no complete trigram, so the index can't narrow anything down
+    static final int MIN_QUERY_LENGTH = 3;
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final EnquiryRepository enquiryRepository;
+    private final UserRepository userRepository;
+
+    @Value("${admin.search.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${admin.search.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${admin.search.max-results:1000}")
+    private int maxResults;
+
+    private interface SearchQuery<E> {
+        List<E> run(String query, String pattern, int limit, int offset);
+    }
+
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public ApiResponse<SearchResultsResponse<EnquiryResponse>> searchEnquiries(String q, Integer page, Integer size) {
+        return search(q, page, size, enquiryRepository::search, EnquiryService::mapToResponse);
+    }
+
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public ApiResponse<SearchResultsResponse<UserProfileResponse>> searchUsers(String q, Integer page, Integer size) {
+        return search(q, page, size, userRepository::search, AdminSearchService::toProfile);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private <E, R> ApiResponse<SearchResultsResponse<R>> search(String q,
+                                                                 Integer page,
+                                                                 Integer size,
+                                                                 SearchQuery<E> searchQuery,
+                                                                 Function<E, R> mapper) {
+        String query = q == null ? "" : q.strip();
+        if (query.length() < MIN_QUERY_LENGTH) {
+            return ApiResponse.error("Search query must be at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            query = query.substring(0, MAX_QUERY_LENGTH);
+        }
+
+        int pageSize = Math.min(Math.max(size == null ? defaultPageSize : size, 1), maxPageSize);
+        int pageNumber = Math.max(page == null ? 0 : page, 0);
+        long offset = (long) pageNumber * pageSize;
+        if (offset >= maxResults) {
+            return ApiResponse.error("Only the first " + maxResults + " results can be paged through; refine the query");
+        }
+
+        long start = System.currentTimeMillis();
+        // One extra row tells us whether there is a next page without a COUNT
+        List<E> rows = searchQuery.run(query, "%" + escapeLike(query) + "%", pageSize + 1, (int) offset);
+        boolean hasMore = rows.size() > pageSize && offset + pageSize < maxResults;
+        List<E> results = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        log.debug("🔍 Admin search '{}' page {} returned {} rows in {} ms",
+                query, pageNumber, results.size(), System.currentTimeMillis() - start);
+
+        return ApiResponse.success("Search results", SearchResultsResponse.<R>builder()
+                .query(query)
+                .page(pageNumber)
+                .size(pageSize)
+                .items(results.stream().map(mapper).toList())
+                .hasMore(hasMore)
+                .build());
+    }
+
+    /**
+     * Backslash is Postgres' default LIKE escape; without this "100%" or "a_b" would be wildcards.
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static UserProfileResponse toProfile(User user) {
+        return new UserProfileResponse(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getUserRole(), user.getGender(), user.getPhoneNumber(), user.getCity(), user.getState(),
+                user.getCountry(), user.getPostalCode(), user.getIsEmailVerified(), user.getIsMobileVerified(),
+                user.getLastLoginAt(), user.getCreatedAt());
+    }
+}
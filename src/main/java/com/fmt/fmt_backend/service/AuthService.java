@@ -1,16 +1,21 @@
 package com.fmt.fmt_backend.service;
 
+import com.fmt.fmt_backend.config.RequestContext;
 import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.dto.CurrentUserResponse;
 import com.fmt.fmt_backend.dto.LoginRequest;
 import com.fmt.fmt_backend.dto.SignUpRequest;
+import com.fmt.fmt_backend.dto.UserProfileResponse;
 import com.fmt.fmt_backend.entity.OtpEntity;
 import com.fmt.fmt_backend.entity.User;
 import com.fmt.fmt_backend.enums.UserRole;
 import com.fmt.fmt_backend.repository.OtpRepository;
 import com.fmt.fmt_backend.repository.UserRepository;
+import com.fmt.fmt_backend.repository.projection.LoginCredential;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -41,6 +47,16 @@ public class AuthService {
     private final DeviceService deviceService;
     private final TokenService tokenService;
     private final CustomUserDetailsService customUserDetailsService;
+    private final RequestContext requestContext;
+    private final ActivityTracker activityTracker;
+    private final UserCacheEvictor userCacheEvictor;
+    private final RetryOnConflict retryOnConflict;
+
+    @Value("${auth.max-failed-attempts:5}")
+    private int maxFailedAttempts;
+
+    @Value("${auth.failed-login-lockout-minutes:15}")
+    private int failedLoginLockoutMinutes;
 
     // ========== SIGNUP FLOW WITH OTP ==========
 
@@ -162,13 +178,16 @@ public class AuthService {
             return ApiResponse.error("Email already registered");
         }
 
+        // Hash outside the try - a saturated hashing pool must surface as 503, not a 400
+        String passwordHash = passwordEncoder.encode(signUpRequest.getPassword());
+
         try {
             // Create user
             User user = User.builder()
                     .firstName(signUpRequest.getFirstName())
                     .lastName(signUpRequest.getLastName())
                     .email(signUpRequest.getEmail().toLowerCase().trim())
-                    .password(passwordEncoder.encode(signUpRequest.getPassword()))
+                    .password(passwordHash)
                     .phoneNumber(signUpRequest.getPhoneNumber())
                     .gender(signUpRequest.getGender())
                     .city(signUpRequest.getCity())
@@ -228,36 +247,42 @@ public class AuthService {
         String email = loginRequest.getEmail().toLowerCase().trim();
 
         try {
-            // Check if user exists
-            User user = userRepository.findByEmail(email)
+            // Single query: the credential row is shared with the authentication provider below
+            LoginCredential credential = userRepository.findLoginCredentialByEmail(email)
                     .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
 
             // Check if account is locked
-            if (user.getAccountLockedUntil() != null &&
-                    user.getAccountLockedUntil().isAfter(LocalDateTime.now())) {
+            if (credential.isLocked()) {
                 return ApiResponse.error("Account is temporarily locked. Please try again later.");
             }
 
             // Authenticate with Spring Security
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(email, loginRequest.getPassword())
-            );
+            Authentication authentication = customUserDetailsService.withPreloadedCredential(credential,
+                    () -> authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(email, loginRequest.getPassword())
+                    ));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            // Reset failed attempts
-            userRepository.resetFailedAttempts(email);
+            // Reset failed attempts (only when there is something to reset)
+            if (credential.getFailedLoginAttempts() != null && credential.getFailedLoginAttempts() > 0
+                    || credential.getAccountLockedUntil() != null) {
+                userRepository.resetFailedAttempts(email)
+                        .ifPresent(id -> userCacheEvictor.evictUser(id, email));
+            }
 
-            // Generate and send OTPs to both channels
-            String emailOtp = otpService.generateOtp(email, OtpEntity.OtpType.LOGIN);
-            String mobileOtp = otpService.generateOtp(user.getPhoneNumber(), OtpEntity.OtpType.LOGIN);
+            // Generate and send OTPs to both channels (one cooldown check, one batched insert)
+            Map<String, String> otps = otpService.generateOtps(OtpEntity.OtpType.LOGIN,
+                    List.of(email, credential.getPhoneNumber()));
+            String emailOtp = otps.get(email);
+            String mobileOtp = otps.get(credential.getPhoneNumber());
 
             // Send OTPs asynchronously
             emailService.sendOtpEmail(email, emailOtp, 5);
-            smsService.sendOtpSms(user.getPhoneNumber(), mobileOtp);
+            smsService.sendOtpSms(credential.getPhoneNumber(), mobileOtp);
 
             log.info("✅ Login OTPs sent to {} (email) and {} (mobile)",
-                    email, maskPhoneNumber(user.getPhoneNumber()));
+                    email, maskPhoneNumber(credential.getPhoneNumber()));
 
             return ApiResponse.success(
                     "OTP sent to your email and mobile. Enter any one to login.",
@@ -276,9 +301,10 @@ public class AuthService {
     }
 
     /**
-     * Step 2: Verify OTP (email or mobile) and complete login
+     * Step 2: Verify OTP (email or mobile) and complete login.
+     * Re-run from scratch if the device row was changed concurrently (e.g. by the inactivity sweep);
+     * the rolled-back attempt leaves the OTP unused.
      */
-    @Transactional
     public ApiResponse<Map<String, Object>> verifyLoginOtp(
             String email,
             String otpCode,
@@ -286,6 +312,11 @@ public class AuthService {
 
         log.info("🔐 Step 2 - Verifying login OTP for: {}", email);
 
+        return retryOnConflict.inTransaction("login", () -> completeLogin(email, otpCode, request));
+    }
+
+    private ApiResponse<Map<String, Object>> completeLogin(String email, String otpCode, HttpServletRequest request) {
+
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -308,10 +339,8 @@ public class AuthService {
             log.info("✅ Email OTP verified for: {}", email);
         }
 
-        // Update last login
-        user.setLastLoginAt(LocalDateTime.now());
-        user.setLastLoginIp(deviceService.generateDeviceFingerprint(request));
-        userRepository.save(user);
+        // Update last login (written behind - no full User save on the login path)
+        activityTracker.recordLogin(user.getId(), LocalDateTime.now(), deviceService.getClientIp(request));
 
         // Generate tokens with device info
         Map<String, Object> tokens = tokenService.generateTokenPair(user, request);
@@ -328,17 +357,11 @@ public class AuthService {
         if (authentication != null && authentication.isAuthenticated()) {
             String email = authentication.getName();
 
-            User user = userRepository.findByEmail(email).orElse(null);
-
-            if (user != null) {
-                // Get current device fingerprint
-                String fingerprint = deviceService.generateDeviceFingerprint(request);
-
-                // Find and revoke tokens for this device
-                deviceService.getCurrentDevice(user, request).ifPresent(device -> {
-                    tokenService.revokeDeviceTokens(device.getId());
-                });
-            }
+            // Find and revoke tokens for this device
+            getCurrentUser().ifPresent(user ->
+                    deviceService.getCurrentDevice(user, request).ifPresent(device -> {
+                        tokenService.revokeDeviceTokens(device.getId());
+                    }));
 
             SecurityContextHolder.clearContext();
             log.info("🚪 Logout successful for: {}", email);
@@ -359,23 +382,57 @@ public class AuthService {
                         authentication.getPrincipal().equals("anonymousUser"))) {
 
             String email = authentication.getName();
+
+            // Reuse the entity the JWT filter already loaded for this request
+            if (RequestContext.isActive()) {
+                return requestContext.resolveCurrentUser(email, () -> userRepository.findByEmail(email));
+            }
             return userRepository.findByEmail(email);
         }
 
         return Optional.empty();
     }
 
+    /**
+     * Id of the authenticated user - taken from the credential the JWT filter already loaded when possible.
+     */
+    public Optional<UUID> getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (RequestContext.isActive() && authentication != null) {
+            Optional<UUID> id = requestContext.getCurrentCredential()
+                    .filter(credential -> credential.getEmail().equalsIgnoreCase(authentication.getName()))
+                    .map(LoginCredential::getId);
+            if (id.isPresent()) {
+                return id;
+            }
+        }
+        return getCurrentUser().map(User::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UserProfileResponse> getCurrentUserProfile() {
+        return getCurrentUserId().flatMap(userRepository::findProfileById);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CurrentUserResponse> getCurrentUserInfo() {
+        return getCurrentUserId().flatMap(userRepository::findCurrentUserById);
+    }
+
     // ========== HELPER METHODS ==========
 
     private void handleFailedLogin(String email) {
-        userRepository.incrementFailedAttempts(email);
-
-        userRepository.findByEmail(email).ifPresent(user -> {
-            if (user.getFailedLoginAttempts() >= 5) {
-                userRepository.lockAccount(email, LocalDateTime.now().plusMinutes(15));
-                log.warn("🔒 Account locked after 5 failed attempts: {}", email);
-            }
-        });
+        // One UPDATE ... RETURNING: increments the counter and sets the lock when the threshold is crossed
+        // Nothing to evict for an unknown email - a bad-password loop can't keep anyone else's entry cold
+        userRepository.recordFailedAttempt(email, maxFailedAttempts,
+                        LocalDateTime.now().plusMinutes(failedLoginLockoutMinutes))
+                .ifPresent(failed -> {
+                    userCacheEvictor.evictUser(failed.getId(), email); // Native update - Hibernate doesn't know
+                    if (failed.getFailedLoginAttempts() >= maxFailedAttempts) {
+                        log.warn("🔒 Account locked after {} failed attempts: {}", failed.getFailedLoginAttempts(), email);
+                    }
+                });
     }
 
     private String maskPhoneNumber(String phone) {
@@ -1,45 +1,86 @@
 package com.fmt.fmt_backend.service;
 
-import com.fmt.fmt_backend.entity.User;
 import com.fmt.fmt_backend.repository.UserRepository;
+import com.fmt.fmt_backend.repository.projection.LoginCredential;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserCacheEvictor userCacheEvictor;
+
+    // Credential loaded by AuthService.loginWithPassword, handed to DaoAuthenticationProvider without a second query
+    private static final ThreadLocal<LoginCredential> PRELOADED_CREDENTIAL = new ThreadLocal<>();
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        LoginCredential preloaded = PRELOADED_CREDENTIAL.get();
+        if (preloaded != null && preloaded.getEmail().equalsIgnoreCase(email)) {
+            return toUserDetails(preloaded);
+        }
+
+        LoginCredential credential = userRepository.findLoginCredentialByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        // Determine if account is locked
-        boolean isAccountNonLocked = true; // Default to not locked
+        return toUserDetails(credential);
+    }
 
-        if (user.getAccountLockedUntil() != null &&
-                user.getAccountLockedUntil().isAfter(LocalDateTime.now())) {
-            isAccountNonLocked = false; // Account is locked
+    /**
+     * Run an authentication with a credential row the caller already loaded,
+     * so the provider's loadUserByUsername doesn't hit the database again.
+     */
+    public <T> T withPreloadedCredential(LoginCredential credential, Supplier<T> action) {
+        PRELOADED_CREDENTIAL.set(credential);
+        try {
+            return action.get();
+        } finally {
+            PRELOADED_CREDENTIAL.remove();
         }
+    }
 
+    /**
+     * Build UserDetails from an already-loaded credential row (login and JWT filter paths).
+     */
+    public UserDetails toUserDetails(LoginCredential credential) {
         // Create Spring Security UserDetails object
         return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                user.getIsActive(),           // enabled - user must be active
+                credential.getEmail(),
+                credential.getPassword(),
+                Boolean.TRUE.equals(credential.getIsActive()), // enabled - user must be active
                 true,                         // accountNonExpired - always true for now
                 true,                         // credentialsNonExpired - always true for now
-                isAccountNonLocked,           // accountNonLocked - calculated above
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getUserRole().name()))
+                !credential.isLocked(),       // accountNonLocked
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + credential.getUserRole().name()))
         );
     }
+
+    /**
+     * Called by DaoAuthenticationProvider after a successful login when the stored hash
+     * uses a lower BCrypt cost than configured - gradually moves users to the new cost.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword)
+                .ifPresent(id -> userCacheEvictor.evictUser(id, user.getUsername()));
+        log.info("🔁 Password hash upgraded for: {}", user.getUsername());
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
@@ -0,0 +1,320 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.config.RequestContext;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the client IP and device fingerprint for a request.
+ *
+ * The client IP is taken from X-Forwarded-For only as far as the hops are trusted proxies
+ * (walking right to left), so a client can't pick its own IP by sending the header.
+ * The fingerprint is a MurmurHash3 x64-128 of "userAgent|ip" over UTF-8, hashed straight
+ * from the chars without building intermediate strings or byte arrays, formatted as a
+ * version-8 UUID. Both values are computed once per request via RequestContext.
+ *
+ * Devices registered before this scheme carry an MD5 (version-3) fingerprint;
+ * {@link #legacyFingerprint} lets callers recognise and migrate them on first contact.
+ */
+@Service
+@Slf4j
+public class DeviceFingerprintService {
+
+    // Strict dotted quad, no leading zeros; anything else must contain ':' to be taken as IPv6
+    private static final Pattern IPV4_LITERAL =
+            Pattern.compile("(?:(?:25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}(?:25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)");
+    private static final Pattern IPV6_LITERAL = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    private final RequestContext requestContext;
+    private final List<IpRange> trustedProxies;
+
+    public DeviceFingerprintService(
+            RequestContext requestContext,
+            @Value("${device.trusted-proxies:127.0.0.0/8,::1/128,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+            List<String> trustedProxies) {
+        this.requestContext = requestContext;
+        this.trustedProxies = new ArrayList<>();
+        for (String proxy : trustedProxies) {
+            if (!proxy.isBlank()) {
+                this.trustedProxies.add(IpRange.parse(proxy.trim()));
+            }
+        }
+        log.info("🛡️ Trusting X-Forwarded-For from {} proxy range(s)", this.trustedProxies.size());
+    }
+
+    // ========== PUBLIC API ==========
+
+    public String clientIp(HttpServletRequest request) {
+        if (RequestContext.isActive()) {
+            return requestContext.resolveClientIp(() -> parseClientIp(request));
+        }
+        return parseClientIp(request);
+    }
+
+    public String fingerprint(HttpServletRequest request) {
+        if (RequestContext.isActive()) {
+            return requestContext.resolveDeviceFingerprint(() -> computeFingerprint(request));
+        }
+        return computeFingerprint(request);
+    }
+
+    /**
+     * The pre-Murmur fingerprint (MD5 name UUID on the platform charset) - only for migrating old devices.
+     */
+    public String legacyFingerprint(HttpServletRequest request) {
+        String fingerprintData = userAgentOf(request) + "|" + clientIp(request);
+        return UUID.nameUUIDFromBytes(fingerprintData.getBytes()).toString();
+    }
+
+    // ========== CLIENT IP ==========
+
+    private String parseClientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String xfHeader = request.getHeader("X-Forwarded-For");
+
+        if (xfHeader == null || xfHeader.isEmpty() || !isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        // Walk from the nearest hop outwards; the first address we don't trust is the client
+        int end = xfHeader.length();
+        String candidate = remoteAddr;
+        while (end > 0) {
+            int start = xfHeader.lastIndexOf(',', end - 1);
+            String hop = xfHeader.substring(start + 1, end).trim();
+            end = Math.max(start, 0);
+
+            if (hop.isEmpty()) {
+                continue;
+            }
+            if (parseIpLiteral(hop) == null) {
+                break; // Not an address our proxy wrote - keep the nearest one we could check
+            }
+            candidate = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return candidate;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        byte[] bytes = parseIpLiteral(address);
+        if (bytes == null) {
+            return false;
+        }
+        for (IpRange range : trustedProxies) {
+            if (range.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Address bytes of an IPv4 or IPv6 literal, or null. Never resolves: hex-letter names like
+     * "bead.cafe" match neither pattern, and InetAddress treats anything containing ':' as a
+     * literal (parsed or rejected, never looked up).
+     */
+    static byte[] parseIpLiteral(String address) {
+        if (address == null) {
+            return null;
+        }
+        if (IPV4_LITERAL.matcher(address).matches()) {
+            String[] octets = address.split("\\.");
+            byte[] bytes = new byte[4];
+            for (int i = 0; i < 4; i++) {
+                bytes[i] = (byte) Integer.parseInt(octets[i]);
+            }
+            return bytes;
+        }
+        if (!IPV6_LITERAL.matcher(address).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    // ========== FINGERPRINT ==========
+
+    private String computeFingerprint(HttpServletRequest request) {
+        String userAgent = userAgentOf(request);
+        String ip = clientIp(request);
+
+        Murmur3 hash = new Murmur3();
+        hash.putUtf8(userAgent);
+        hash.putByte((byte) '|');
+        hash.putUtf8(ip);
+        hash.finish();
+
+        // Stamp version 8 (custom) and the IETF variant so it can't collide with old v3 values
+        long msb = (hash.h1 & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000008000L;
+        long lsb = (hash.h2 & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        String fingerprint = new UUID(msb, lsb).toString();
+
+        log.debug("🖐️ Generated fingerprint: {}", fingerprint);
+        return fingerprint;
+    }
+
+    private static String userAgentOf(HttpServletRequest request) {
+        String userAgent = request.getHeader("User-Agent");
+        return userAgent != null ? userAgent : "unknown";
+    }
+
+    /**
+     * Streaming MurmurHash3 x64-128 (seed 0). Bytes are packed into two longs and mixed
+     * every 16 bytes, so hashing a string allocates nothing beyond this object.
+     */
+    static final class Murmur3 {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        long h1;
+        long h2;
+        private long k1;
+        private long k2;
+        private int position; // bytes in the current 16-byte block
+        private long length;
+
+        void putUtf8(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    putByte((byte) c);
+                } else if (c < 0x800) {
+                    putByte((byte) (0xC0 | (c >>> 6)));
+                    putByte((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                    putByte((byte) (0xF0 | (codePoint >>> 18)));
+                    putByte((byte) (0x80 | ((codePoint >>> 12) & 0x3F)));
+                    putByte((byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+                    putByte((byte) (0x80 | (codePoint & 0x3F)));
+                } else if (Character.isSurrogate(c)) {
+                    putByte((byte) '?'); // Unpaired surrogate, same as String.getBytes(UTF_8)
+                } else {
+                    putByte((byte) (0xE0 | (c >>> 12)));
+                    putByte((byte) (0x80 | ((c >>> 6) & 0x3F)));
+                    putByte((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+        }
+
+        void putByte(byte b) {
+            long value = b & 0xFFL;
+            if (position < 8) {
+                k1 |= value << (8 * position);
+            } else {
+                k2 |= value << (8 * (position - 8));
+            }
+            length++;
+            if (++position == 16) {
+                mixBlock();
+            }
+        }
+
+        void finish() {
+            if (position > 0) {
+                // Tail: same as the reference implementation's switch fall-through
+                if (position > 8) {
+                    k2 *= C2;
+                    k2 = Long.rotateLeft(k2, 33);
+                    k2 *= C1;
+                    h2 ^= k2;
+                }
+                k1 *= C1;
+                k1 = Long.rotateLeft(k1, 31);
+                k1 *= C2;
+                h1 ^= k1;
+            }
+
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix64(h1);
+            h2 = fmix64(h2);
+            h1 += h2;
+            h2 += h1;
+        }
+
+        private void mixBlock() {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+
+            k1 = 0;
+            k2 = 0;
+            position = 0;
+        }
+
+        private static long fmix64(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+
+    /**
+     * An address or CIDR block from device.trusted-proxies.
+     */
+    private record IpRange(byte[] network, int prefixLength) {
+
+        static IpRange parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            String address = slash >= 0 ? cidr.substring(0, slash) : cidr;
+            byte[] network = parseIpLiteral(address);
+            if (network == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + cidr);
+            }
+            int prefix = slash >= 0 ? Integer.parseInt(cidr.substring(slash + 1)) : network.length * 8;
+            return new IpRange(network, prefix);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = (0xFF << (8 - remainingBits)) & 0xFF;
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
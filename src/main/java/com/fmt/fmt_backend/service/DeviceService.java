@@ -1,16 +1,22 @@
 package com.fmt.fmt_backend.service;
 
 import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.dto.DeviceDisconnectOption;
+import com.fmt.fmt_backend.dto.DeviceResponse;
 import com.fmt.fmt_backend.entity.DeviceEntity;
 import com.fmt.fmt_backend.entity.User;
 import com.fmt.fmt_backend.repository.DeviceRepository;
 import com.fmt.fmt_backend.repository.RefreshTokenRepository;
+import com.fmt.fmt_backend.repository.projection.DeactivatedDevice;
+import com.fmt.fmt_backend.service.DeviceSessionRegistry.DeviceSession;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -23,6 +29,12 @@ public class DeviceService {
 
     private final DeviceRepository deviceRepository;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final DeviceFingerprintService fingerprintService;
+    private final DeviceSessionRegistry sessionRegistry;
+    private final ActivityTracker activityTracker;
+    private final UserAgentClassifier userAgentClassifier;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryOnConflict retryOnConflict;
 
     @Value("${device.max-sessions-per-user:2}")
     private int maxSessionsPerUser;
@@ -30,19 +42,35 @@ public class DeviceService {
     @Value("${device.max-streaming-sessions:1}")
     private int maxStreamingSessions;
 
+    @Value("${device.streaming-lease-seconds:90}")
+    private long streamingLeaseSeconds;
+
+    @Value("${device.inactive-days:30}")
+    private int inactiveDays;
+
+    @Value("${device.cleanup-batch-size:1000}")
+    private int cleanupBatchSize;
+
     /**
      * Generate device fingerprint from request
      */
     public String generateDeviceFingerprint(HttpServletRequest request) {
-        String userAgent = request.getHeader("User-Agent");
-        String ip = getClientIp(request);
-
-        // Create unique fingerprint from userAgent + IP
-        String fingerprintData = (userAgent != null ? userAgent : "unknown") + "|" + ip;
-        String fingerprint = UUID.nameUUIDFromBytes(fingerprintData.getBytes()).toString();
+        return fingerprintService.fingerprint(request);
+    }
 
-        log.debug("🖐️ Generated fingerprint: {} for IP: {}", fingerprint, maskIpAddress(ip));
-        return fingerprint;
+    /**
+     * Check the device against the current request's fingerprint.
+     * Devices still on the legacy MD5 fingerprint are upgraded in place when they match.
+     */
+    public boolean matchesCurrentDevice(DeviceEntity device, HttpServletRequest request) {
+        if (device.getDeviceFingerprint().equals(fingerprintService.fingerprint(request))) {
+            return true;
+        }
+        if (device.getDeviceFingerprint().equals(fingerprintService.legacyFingerprint(request))) {
+            migrateFingerprint(device, request);
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -56,21 +84,41 @@ public class DeviceService {
         Optional<DeviceEntity> existingDeviceOpt = deviceRepository
                 .findByUserAndDeviceFingerprint(user, deviceFingerprint);
 
+        if (existingDeviceOpt.isEmpty()) {
+            // Device may still be stored under its pre-Murmur fingerprint
+            existingDeviceOpt = deviceRepository
+                    .findByUserAndDeviceFingerprint(user, fingerprintService.legacyFingerprint(request))
+                    .map(device -> migrateFingerprint(device, request));
+        }
+
         if (existingDeviceOpt.isPresent()) {
             DeviceEntity existingDevice = existingDeviceOpt.get();
 
+            String ipAddress = getClientIp(request);
+            String userAgent = request.getHeader("User-Agent");
+
+            // Only write the row when something other than the timestamp changed
+            boolean changed = !existingDevice.isActive()
+                    || !Objects.equals(existingDevice.getIpAddress(), ipAddress)
+                    || !Objects.equals(existingDevice.getUserAgent(), userAgent);
+
+            if (!changed) {
+                activityTracker.recordDeviceActivity(user.getId(), existingDevice.getId(), LocalDateTime.now());
+                return existingDevice;
+            }
+
             // ✅ FIX BUG 8: Reactivate if inactive
             if (!existingDevice.isActive()) {
                 log.info("🔄 Reactivating inactive device: {}", existingDevice.getId());
-                existingDevice.setActive(true);
             }
 
-            // Update last active time
             existingDevice.setLastActiveAt(LocalDateTime.now());
-            existingDevice.setIpAddress(getClientIp(request));
-            existingDevice.setUserAgent(request.getHeader("User-Agent"));
+            existingDevice.setIpAddress(ipAddress);
+            existingDevice.setUserAgent(userAgent);
             existingDevice.setActive(true);
-            return deviceRepository.save(existingDevice);
+            DeviceEntity savedDevice = deviceRepository.save(existingDevice);
+            sessionRegistry.registerDevice(user, savedDevice);
+            return savedDevice;
         }
 
         // Create new device
@@ -86,6 +134,7 @@ public class DeviceService {
         newDevice.setStreaming(false);
 
         DeviceEntity savedDevice = deviceRepository.save(newDevice);
+        sessionRegistry.registerDevice(user, savedDevice);
 
         // Check if user exceeded device limit
         checkDeviceLimit(user);
@@ -97,29 +146,33 @@ public class DeviceService {
     /**
      * Get all active devices for a user
      */
-    public List<Map<String, Object>> getUserDevices(User user, HttpServletRequest request) {
-        List<DeviceEntity> devices = deviceRepository.findByUserAndIsActiveTrue(user);
-
-        return devices.stream().map(device -> {
-            Map<String, Object> dto = new HashMap<>();
-            dto.put("deviceId", device.getId());
-            dto.put("deviceName", device.getDeviceName());
-            dto.put("ipAddress", maskIpAddress(device.getIpAddress()));
-            dto.put("lastActive", device.getLastActiveAt());
-            dto.put("firstSeen", device.getFirstSeenAt());
-            dto.put("isStreaming", device.isStreaming());
-            dto.put("userAgent", truncateUserAgent(device.getUserAgent()));
-            dto.put("isCurrentDevice", isCurrentDevice(device, request));
-            return dto;
-        }).collect(Collectors.toList());
+    public List<DeviceResponse> getUserDevices(User user, HttpServletRequest request) {
+        List<DeviceSession> devices = sessionRegistry.getActiveDevices(user);
+        String currentFingerprint = generateDeviceFingerprint(request);
+        LocalDateTime now = LocalDateTime.now();
+
+        return devices.stream()
+                .map(device -> new DeviceResponse(
+                        device.getDeviceId(),
+                        device.getDeviceName(),
+                        maskIpAddress(device.getIpAddress()),
+                        device.getLastActiveAt(),
+                        device.getFirstSeenAt(),
+                        device.isStreamingAt(now),
+                        truncateUserAgent(device.getUserAgent()),
+                        device.getDeviceFingerprint().equals(currentFingerprint)))
+                .toList();
     }
 
     /**
      * Revoke a specific device
      */
-    @Transactional
     public ApiResponse<String> revokeDevice(User user, UUID deviceId) {
-        log.info("🔒 Revoking device {} for user: {}", deviceId, user.getEmail());
+        return retryOnConflict.inTransaction("device.revoke", () -> deactivateDevice(user, deviceId));
+    }
+
+    private ApiResponse<String> deactivateDevice(User user, UUID deviceId) {
+        log.info("🔒 Revoking device {} for user: {}", deviceId, user.getId());
 
         Optional<DeviceEntity> deviceOpt = deviceRepository.findById(deviceId);
 
@@ -140,7 +193,10 @@ public class DeviceService {
 
         // Deactivate device
         device.setActive(false);
+        device.setStreaming(false);
+        device.setStreamingLeaseExpiresAt(null);
         deviceRepository.save(device);
+        sessionRegistry.removeDevice(user, deviceId);
 
         // Revoke all refresh tokens for this device
         refreshTokenRepository.revokeAllDeviceTokens(deviceId, LocalDateTime.now());
@@ -153,33 +209,27 @@ public class DeviceService {
      * Handle when user exceeds device limit
      * Returns list of devices user can choose to disconnect
      */
-    public ApiResponse<List<Map<String, Object>>> handleDeviceLimit(User user, HttpServletRequest request) {
-        long activeDevices = deviceRepository.countByUserAndIsActiveTrue(user);
+    public ApiResponse<List<DeviceDisconnectOption>> handleDeviceLimit(User user, HttpServletRequest request) {
+        List<DeviceSession> allDevices = sessionRegistry.getActiveDevices(user);
+        long activeDevices = allDevices.size();
 
         if (activeDevices <= maxSessionsPerUser) {
             return ApiResponse.success("Within device limit", null);
         }
 
-        List<DeviceEntity> allDevices = deviceRepository.findByUserAndIsActiveTrue(user);
-
-        // Sort by last active (oldest first)
-        allDevices.sort((d1, d2) -> d1.getLastActiveAt().compareTo(d2.getLastActiveAt()));
-
         // Exclude current device from being disconnected
-        Optional<DeviceEntity> currentDeviceOpt = getCurrentDevice(user, request);
+        String currentFingerprint = generateDeviceFingerprint(request);
 
-        List<Map<String, Object>> disconnectOptions = allDevices.stream()
-                .filter(d -> currentDeviceOpt.isEmpty() || !d.getId().equals(currentDeviceOpt.get().getId()))
+        List<DeviceDisconnectOption> disconnectOptions = allDevices.stream()
+                .filter(d -> !d.getDeviceFingerprint().equals(currentFingerprint))
+                .sorted(Comparator.comparing(DeviceSession::getLastActiveAt)) // Oldest first
                 .limit(activeDevices - maxSessionsPerUser + 1) // Show options to reduce to limit
-                .map(device -> {
-                    Map<String, Object> dto = new HashMap<>();
-                    dto.put("deviceId", device.getId());
-                    dto.put("deviceName", device.getDeviceName());
-                    dto.put("lastActive", device.getLastActiveAt());
-                    dto.put("ipAddress", maskIpAddress(device.getIpAddress()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+                .map(device -> new DeviceDisconnectOption(
+                        device.getDeviceId(),
+                        device.getDeviceName(),
+                        device.getLastActiveAt(),
+                        maskIpAddress(device.getIpAddress())))
+                .toList();
 
         return ApiResponse.success(
                 String.format("You have %d active devices. Maximum allowed is %d.",
@@ -191,19 +241,22 @@ public class DeviceService {
     /**
      * User chooses which device to disconnect
      */
-    @Transactional
     public ApiResponse<String> disconnectDevice(User user, UUID deviceId) {
-        log.info("🔌 User {} requesting to disconnect device: {}", user.getEmail(), deviceId);
+        return retryOnConflict.inTransaction("device.disconnect", () -> disconnectAndCount(user, deviceId));
+    }
+
+    private ApiResponse<String> disconnectAndCount(User user, UUID deviceId) {
+        log.info("🔌 User {} requesting to disconnect device: {}", user.getId(), deviceId);
 
         // First revoke the device
-        ApiResponse<String> revokeResponse = revokeDevice(user, deviceId);
+        ApiResponse<String> revokeResponse = deactivateDevice(user, deviceId);
 
         if (!revokeResponse.isSuccess()) {
             return revokeResponse;
         }
 
         // Check current active device count
-        long activeDevices = deviceRepository.countByUserAndIsActiveTrue(user);
+        long activeDevices = sessionRegistry.countActiveDevices(user);
 
         if (activeDevices <= maxSessionsPerUser) {
             return ApiResponse.success(
@@ -228,30 +281,19 @@ public class DeviceService {
     public ApiResponse<String> startStreaming(User user, UUID deviceId) {
         log.info("🎥 Starting streaming for device: {}", deviceId);
 
-        Optional<DeviceEntity> deviceOpt = deviceRepository.findById(deviceId);
-
-        if (deviceOpt.isEmpty()) {
-            return ApiResponse.error("Device not found");
-        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(streamingLeaseSeconds);
 
-        DeviceEntity device = deviceOpt.get();
-
-        // Check if device belongs to user
-        if (!device.getUser().getId().equals(user.getId())) {
-            return ApiResponse.error("Device not found");
-        }
+        // Ownership + limit check and slot reservation in one atomic step (this node)
+        DeviceSessionRegistry.StreamingDecision decision =
+                sessionRegistry.tryStartStreaming(user, deviceId, maxStreamingSessions, leaseUntil);
 
-        // Check streaming limit
-        long streamingCount = deviceRepository.countByUserAndIsStreamingTrue(user);
-
-        if (streamingCount >= maxStreamingSessions) {
-            // Find which device is streaming
-            List<DeviceEntity> streamingDevices = deviceRepository.findByUserAndIsActiveTrue(user)
-                    .stream()
-                    .filter(DeviceEntity::isStreaming)
-                    .collect(Collectors.toList());
+        if (!decision.isGranted()) {
+            if (decision.getStreamingElsewhere().isEmpty()) {
+                return ApiResponse.error("Device not found");
+            }
 
-            String streamingOn = streamingDevices.stream()
+            String streamingOn = decision.getStreamingElsewhere().stream()
                     .map(d -> d.getDeviceName() + " (" + maskIpAddress(d.getIpAddress()) + ")")
                     .collect(Collectors.joining(", "));
 
@@ -260,18 +302,50 @@ public class DeviceService {
             );
         }
 
-        device.setStreaming(true);
-        deviceRepository.save(device);
+        // Same check in the database, one user at a time - guards against another node taking the slot
+        deviceRepository.lockStreamingSlots(user.getId());
+        int acquired = deviceRepository.acquireStreamingLease(
+                user.getId(), deviceId, maxStreamingSessions, now, leaseUntil);
+
+        if (acquired == 0) {
+            sessionRegistry.evict(user.getId()); // Our view was stale - reload on next access
+            return ApiResponse.error("Streaming already active on another device. Stop streaming there first.");
+        }
 
-        log.info("✅ Streaming started on device: {}", deviceId);
+        log.info("✅ Streaming started on device: {} (lease until {})", deviceId, leaseUntil);
         return ApiResponse.success("Streaming started");
     }
 
     /**
-     * Stop streaming on a device
+     * Extend the streaming lease - players call this periodically while playing
      */
     @Transactional
+    public ApiResponse<String> heartbeatStreaming(User user, UUID deviceId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(streamingLeaseSeconds);
+
+        // The database is authoritative - only extend our view once the renewal there went through
+        if (deviceRepository.renewStreamingLease(user.getId(), deviceId, now, leaseUntil) == 0) {
+            sessionRegistry.stopStreaming(user, deviceId);
+            log.warn("⌛ Streaming lease expired or missing for device: {}", deviceId);
+            return ApiResponse.error("Streaming session expired. Please start streaming again.");
+        }
+        if (!sessionRegistry.renewStreamingLease(user, deviceId, leaseUntil)) {
+            sessionRegistry.evict(user.getId()); // Our view was stale - reload on next access
+        }
+
+        log.debug("💓 Streaming lease extended for device {} until {}", deviceId, leaseUntil);
+        return ApiResponse.success("Streaming lease extended");
+    }
+
+    /**
+     * Stop streaming on a device
+     */
     public ApiResponse<String> stopStreaming(User user, UUID deviceId) {
+        return retryOnConflict.inTransaction("device.stop-streaming", () -> clearStreaming(user, deviceId));
+    }
+
+    private ApiResponse<String> clearStreaming(User user, UUID deviceId) {
         Optional<DeviceEntity> deviceOpt = deviceRepository.findById(deviceId);
 
         if (deviceOpt.isEmpty()) {
@@ -285,31 +359,92 @@ public class DeviceService {
         }
 
         device.setStreaming(false);
+        device.setStreamingLeaseExpiresAt(null);
         deviceRepository.save(device);
+        sessionRegistry.stopStreaming(user, deviceId);
 
         log.info("⏹️ Streaming stopped on device: {}", deviceId);
         return ApiResponse.success("Streaming stopped");
     }
 
     /**
-     * Clean up inactive devices
+     * Free streaming slots whose lease ran out (player crashed or closed without calling stop)
      */
+    @Scheduled(fixedDelayString = "${device.streaming-reaper-interval-ms:30000}")
     @Transactional
-    public void cleanupInactiveDevices() {
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(30); // 30 days inactivity
+    public void releaseExpiredStreamingLeases() {
+        LocalDateTime now = LocalDateTime.now();
+
+        int released = deviceRepository.releaseExpiredStreamingLeases(now);
+        sessionRegistry.releaseExpiredLeases(now);
 
-        List<DeviceEntity> allDevices = deviceRepository.findAll();
-        List<DeviceEntity> inactiveDevices = allDevices.stream()
-                .filter(d -> d.getLastActiveAt().isBefore(cutoff))
-                .collect(Collectors.toList());
+        if (released > 0) {
+            log.info("🧹 Released {} expired streaming lease(s)", released);
+        }
+    }
 
-        for (DeviceEntity device : inactiveDevices) {
-            device.setActive(false);
-            refreshTokenRepository.revokeAllDeviceTokens(device.getId(), LocalDateTime.now());
+    /**
+     * Deactivate devices unused for device.inactive-days and revoke their refresh tokens.
+     * Works in keyset-bounded chunks, each its own transaction with two bulk statements,
+     * so the devices table is never loaded into memory and locks stay short.
+     */
+    @Scheduled(cron = "${device.cleanup-cron:0 30 3 * * *}")
+    public void cleanupInactiveDevices() {
+        long start = System.currentTimeMillis();
+        activityTracker.flush(); // Don't judge devices on stale lastActiveAt values
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(inactiveDays);
+        UUID afterId = new UUID(0L, 0L);
+        int chunks = 0;
+        int devices = 0;
+        int tokens = 0;
+
+        while (true) {
+            long chunkStart = System.currentTimeMillis();
+            UUID chunkAfter = afterId;
+
+            SweepChunk chunk = transactionTemplate.execute(status -> {
+                List<DeactivatedDevice> deactivated =
+                        deviceRepository.deactivateInactiveBatch(cutoff, chunkAfter, cleanupBatchSize);
+                if (deactivated.isEmpty()) {
+                    return new SweepChunk(deactivated, 0);
+                }
+                List<UUID> deviceIds = deactivated.stream().map(DeactivatedDevice::getId).toList();
+                int revoked = refreshTokenRepository.revokeTokensForDevices(deviceIds, LocalDateTime.now());
+                return new SweepChunk(deactivated, revoked);
+            });
+
+            if (chunk == null || chunk.devices().isEmpty()) {
+                break;
+            }
+
+            chunk.devices().stream()
+                    .map(DeactivatedDevice::getUserId)
+                    .distinct()
+                    .forEach(sessionRegistry::evict);
+
+            // Postgres orders UUIDs bytewise, which matches their lowercase string form
+            afterId = chunk.devices().stream()
+                    .map(DeactivatedDevice::getId)
+                    .max(Comparator.comparing(UUID::toString))
+                    .orElseThrow();
+
+            chunks++;
+            devices += chunk.devices().size();
+            tokens += chunk.revokedTokens();
+            log.debug("🧹 Sweep chunk {}: {} devices, {} tokens in {} ms",
+                    chunks, chunk.devices().size(), chunk.revokedTokens(), System.currentTimeMillis() - chunkStart);
+
+            if (chunk.devices().size() < cleanupBatchSize) {
+                break;
+            }
         }
 
-        deviceRepository.saveAll(inactiveDevices);
-        log.info("🧹 Cleaned up {} inactive devices", inactiveDevices.size());
+        log.info("🧹 Cleaned up {} inactive devices (>{} days), revoked {} refresh tokens in {} chunk(s), {} ms",
+                devices, inactiveDays, tokens, chunks, System.currentTimeMillis() - start);
+    }
+
+    private record SweepChunk(List<DeactivatedDevice> devices, int revokedTokens) {
     }
 
     // ========== PRIVATE HELPER METHODS ==========
@@ -319,26 +454,23 @@ public class DeviceService {
      */
     public Optional<DeviceEntity> getCurrentDevice(User user, HttpServletRequest request) {
         String currentFingerprint = generateDeviceFingerprint(request);
-        return deviceRepository.findByUserAndDeviceFingerprint(user, currentFingerprint);
+        return deviceRepository.findByUserAndDeviceFingerprint(user, currentFingerprint)
+                .or(() -> deviceRepository.findByUserAndDeviceFingerprint(
+                        user, fingerprintService.legacyFingerprint(request)));
     }
 
     /**
-     * Check if device is the current device
+     * Get client IP address from request
      */
-    private boolean isCurrentDevice(DeviceEntity device, HttpServletRequest request) {
-        String currentFingerprint = generateDeviceFingerprint(request);
-        return device.getDeviceFingerprint().equals(currentFingerprint);
+    public String getClientIp(HttpServletRequest request) {
+        return fingerprintService.clientIp(request);
     }
 
-    /**
-     * Get client IP address from request
-     */
-    private String getClientIp(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader != null && !xfHeader.isEmpty()) {
-            return xfHeader.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
+    private DeviceEntity migrateFingerprint(DeviceEntity device, HttpServletRequest request) {
+        log.info("🔁 Migrating device {} to the new fingerprint scheme", device.getId());
+        device.setDeviceFingerprint(fingerprintService.fingerprint(request));
+        sessionRegistry.evict(device.getUser().getId()); // Cached copy holds the old fingerprint
+        return device;
     }
 
     /**
@@ -349,37 +481,12 @@ public class DeviceService {
 
         if (userAgent == null) return "Unknown Device";
 
-        // Detect browser first
-        String browser = "Unknown Browser";
-        if (userAgent.contains("Chrome") && !userAgent.contains("Edg")) {
-            browser = "Chrome";
-        } else if (userAgent.contains("Edg")) {
-            browser = "Edge";
-        } else if (userAgent.contains("Firefox")) {
-            browser = "Firefox";
-        } else if (userAgent.contains("Safari") && !userAgent.contains("Chrome")) {
-            browser = "Safari";
-        } else if (userAgent.contains("Opera") || userAgent.contains("OPR")) {
-            browser = "Opera";
-        }
-
-        // Detect OS
-        String os = "Unknown OS";
-        if (userAgent.contains("Windows NT 10.0")) {
-            os = "Windows 10";
-        } else if (userAgent.contains("Windows NT 11.0")) {
-            os = "Windows 11";
-        } else if (userAgent.contains("Mac OS X")) {
-            os = "macOS";
-        } else if (userAgent.contains("Linux")) {
-            os = "Linux";
-        } else if (userAgent.contains("Android")) {
-            os = "Android";
-        } else if (userAgent.contains("iPhone") || userAgent.contains("iPad")) {
-            os = "iOS";
+        UserAgentClassifier.UserAgentInfo info = userAgentClassifier.classify(userAgent);
+        if (info.isBot()) {
+            log.warn("🤖 Automated client registering a device: {}", truncateUserAgent(userAgent));
         }
 
-        return browser + " on " + os;
+        return info.displayName();
     }
 
     /**
@@ -407,7 +514,7 @@ public class DeviceService {
      * Check if user exceeds device limit
      */
     private void checkDeviceLimit(User user) {
-        long activeDevices = deviceRepository.countByUserAndIsActiveTrue(user);
+        long activeDevices = sessionRegistry.countActiveDevices(user);
         if (activeDevices > maxSessionsPerUser) {
             log.warn("⚠️ User {} has {} devices (limit: {})",
                     user.getEmail(), activeDevices, maxSessionsPerUser);
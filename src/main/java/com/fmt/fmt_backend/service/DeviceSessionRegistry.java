@@ -0,0 +1,268 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.entity.DeviceEntity;
+import com.fmt.fmt_backend.entity.User;
+import com.fmt.fmt_backend.repository.DeviceRepository;
+import com.fmt.fmt_backend.repository.projection.DeviceView;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of each user's active devices and streaming slots.
+ *
+ * Hydrated lazily from the devices table the first time a user is touched, then kept
+ * up to date by DeviceService on register / revoke / stream start / stream stop.
+ * Every per-user operation runs under that user's lock, so limit checks are race-free
+ * within this node. If the surrounding transaction rolls back, the user's entry is
+ * dropped and re-hydrated from the database on next access.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeviceSessionRegistry {
+
+    private final DeviceRepository deviceRepository;
+
+    private final ConcurrentHashMap<UUID, UserSessions> sessions = new ConcurrentHashMap<>();
+
+    @Value
+    @Builder(toBuilder = true)
+    public static class DeviceSession {
+        UUID deviceId;
+        String deviceName;
+        String deviceFingerprint;
+        String ipAddress;
+        String userAgent;
+        LocalDateTime lastActiveAt;
+        LocalDateTime firstSeenAt;
+        boolean streaming;
+        LocalDateTime streamingLeaseExpiresAt;
+
+        /**
+         * A slot only counts while its lease is alive - a crashed player frees it once the lease runs out.
+         */
+        public boolean isStreamingAt(LocalDateTime now) {
+            return streaming && streamingLeaseExpiresAt != null && streamingLeaseExpiresAt.isAfter(now);
+        }
+
+        static DeviceSession from(DeviceView device) {
+            return DeviceSession.builder()
+                    .deviceId(device.getId())
+                    .deviceName(device.getDeviceName())
+                    .deviceFingerprint(device.getDeviceFingerprint())
+                    .ipAddress(device.getIpAddress())
+                    .userAgent(device.getUserAgent())
+                    .lastActiveAt(device.getLastActiveAt())
+                    .firstSeenAt(device.getFirstSeenAt())
+                    .streaming(device.getIsStreaming())
+                    .streamingLeaseExpiresAt(device.getStreamingLeaseExpiresAt())
+                    .build();
+        }
+
+        static DeviceSession from(DeviceEntity device) {
+            return DeviceSession.builder()
+                    .deviceId(device.getId())
+                    .deviceName(device.getDeviceName())
+                    .deviceFingerprint(device.getDeviceFingerprint())
+                    .ipAddress(device.getIpAddress())
+                    .userAgent(device.getUserAgent())
+                    .lastActiveAt(device.getLastActiveAt())
+                    .firstSeenAt(device.getFirstSeenAt())
+                    .streaming(device.isStreaming())
+                    .streamingLeaseExpiresAt(device.getStreamingLeaseExpiresAt())
+                    .build();
+        }
+    }
+
+    /**
+     * Result of trying to take a streaming slot - either granted or the devices holding the slots.
+     */
+    @Value
+    public static class StreamingDecision {
+        boolean granted;
+        List<DeviceSession> streamingElsewhere;
+    }
+
+    private static final class UserSessions {
+        private final Map<UUID, DeviceSession> active = new LinkedHashMap<>();
+    }
+
+    // ========== READS ==========
+
+    public List<DeviceSession> getActiveDevices(User user) {
+        UserSessions userSessions = sessionsFor(user);
+        synchronized (userSessions) {
+            return new ArrayList<>(userSessions.active.values());
+        }
+    }
+
+    public int countActiveDevices(User user) {
+        UserSessions userSessions = sessionsFor(user);
+        synchronized (userSessions) {
+            return userSessions.active.size();
+        }
+    }
+
+    // ========== WRITES ==========
+
+    /**
+     * Add or refresh an active device (after register / reactivate).
+     */
+    public void registerDevice(User user, DeviceEntity device) {
+        UserSessions userSessions = sessionsFor(user);
+        synchronized (userSessions) {
+            if (device.isActive()) {
+                userSessions.active.put(device.getId(), DeviceSession.from(device));
+            } else {
+                userSessions.active.remove(device.getId());
+            }
+        }
+        evictOnRollback(user.getId());
+    }
+
+    public void removeDevice(User user, UUID deviceId) {
+        UserSessions userSessions = sessionsFor(user);
+        synchronized (userSessions) {
+            userSessions.active.remove(deviceId);
+        }
+        evictOnRollback(user.getId());
+    }
+
+    /**
+     * Atomically check the streaming limit and take (or renew) a lease on a slot.
+     * Expired leases don't count against the limit.
+     */
+    public StreamingDecision tryStartStreaming(User user, UUID deviceId, int maxStreamingSessions,
+                                               LocalDateTime leaseUntil) {
+        LocalDateTime now = LocalDateTime.now();
+        UserSessions userSessions = sessionsFor(user);
+        synchronized (userSessions) {
+            DeviceSession device = userSessions.active.get(deviceId);
+            if (device == null) {
+                return new StreamingDecision(false, List.of());
+            }
+
+            if (!device.isStreamingAt(now)) {
+                List<DeviceSession> streaming = userSessions.active.values().stream()
+                        .filter(d -> d.isStreamingAt(now))
+                        .toList();
+
+                if (streaming.size() >= maxStreamingSessions) {
+                    return new StreamingDecision(false, streaming);
+                }
+            }
+
+            userSessions.active.put(deviceId, device.toBuilder()
+                    .streaming(true)
+                    .streamingLeaseExpiresAt(leaseUntil)
+                    .build());
+        }
+        evictOnRollback(user.getId());
+        return new StreamingDecision(true, List.of());
+    }
+
+    /**
+     * Extend a live lease. Returns false if the device isn't streaming or its lease already ran out.
+     */
+    public boolean renewStreamingLease(User user, UUID deviceId, LocalDateTime leaseUntil) {
+        LocalDateTime now = LocalDateTime.now();
+        UserSessions userSessions = sessionsFor(user);
+        synchronized (userSessions) {
+            DeviceSession device = userSessions.active.get(deviceId);
+            if (device == null || !device.isStreamingAt(now)) {
+                return false;
+            }
+            userSessions.active.put(deviceId, device.toBuilder().streamingLeaseExpiresAt(leaseUntil).build());
+        }
+        evictOnRollback(user.getId());
+        return true;
+    }
+
+    public void stopStreaming(User user, UUID deviceId) {
+        UserSessions userSessions = sessionsFor(user);
+        synchronized (userSessions) {
+            userSessions.active.computeIfPresent(deviceId,
+                    (id, device) -> device.toBuilder().streaming(false).streamingLeaseExpiresAt(null).build());
+        }
+        evictOnRollback(user.getId());
+    }
+
+    /**
+     * Clear expired leases from every hydrated user (the reaper does the same in the database).
+     */
+    public int releaseExpiredLeases(LocalDateTime now) {
+        int released = 0;
+        for (UserSessions userSessions : sessions.values()) {
+            synchronized (userSessions) {
+                for (Map.Entry<UUID, DeviceSession> entry : userSessions.active.entrySet()) {
+                    DeviceSession device = entry.getValue();
+                    if (device.isStreaming() && !device.isStreamingAt(now)) {
+                        entry.setValue(device.toBuilder().streaming(false).streamingLeaseExpiresAt(null).build());
+                        released++;
+                    }
+                }
+            }
+        }
+        return released;
+    }
+
+    public void touch(UUID userId, UUID deviceId, LocalDateTime lastActiveAt) {
+        UserSessions userSessions = sessions.get(userId);
+        if (userSessions == null) {
+            return; // Not hydrated yet - the database copy is what will be loaded
+        }
+        synchronized (userSessions) {
+            userSessions.active.computeIfPresent(deviceId,
+                    (id, device) -> device.toBuilder().lastActiveAt(lastActiveAt).build());
+        }
+    }
+
+    /**
+     * Forget a user's sessions; the next access re-hydrates from the database.
+     */
+    public void evict(UUID userId) {
+        sessions.remove(userId);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private UserSessions sessionsFor(User user) {
+        UserSessions existing = sessions.get(user.getId());
+        if (existing != null) {
+            return existing;
+        }
+
+        // Hydrate outside the map lock; if another thread won the race, use its copy
+        UserSessions hydrated = new UserSessions();
+        for (DeviceView device : deviceRepository.findActiveDeviceViews(user.getId())) {
+            hydrated.active.put(device.getId(), DeviceSession.from(device));
+        }
+        log.debug("📥 Hydrated {} active device(s) for user {}", hydrated.active.size(), user.getId());
+
+        UserSessions raced = sessions.putIfAbsent(user.getId(), hydrated);
+        return raced != null ? raced : hydrated;
+    }
+
+    private void evictOnRollback(UUID userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    evict(userId);
+                }
+            }
+        });
+    }
+}
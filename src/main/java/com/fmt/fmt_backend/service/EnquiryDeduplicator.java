@@ -0,0 +1,191 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.entity.Enquiry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Folds repeat enquiries from the same mobile into the first one.
+ *
+ * Keeps normalised mobile -> enquiry id for dedup-window-minutes (bounded, per instance). A repeat
+ * inside the window inserts nothing and sends no email; it only bumps submission_count /
+ * last_submitted_at on the original row. Those bumps are written behind like ActivityTracker's,
+ * one UPDATE ... FROM (VALUES ...) per chunk, and an id whose row isn't inserted yet (buffered
+ * ingestion) is simply carried to the next flush.
+ *
+ * Two submissions racing in before either is remembered still create two rows - good enough for
+ * a form resubmit, and it keeps the request path lock-free.
+ *
+ * The count handed back for a folded repeat is what this instance has seen in the window; repeats
+ * that landed on another instance only show up in the row's submission_count.
+ */
+@Component
+@Slf4j
+public class EnquiryDeduplicator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Original> recentByMobile;
+    private final ConcurrentHashMap<UUID, Resubmissions> pending = new ConcurrentHashMap<>();
+    private final Counter coalescedCounter;
+    private final Duration window;
+
+    @Value("${enquiry.dedup.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    /**
+     * The stored enquiry a repeat was folded into, with the submission count including this one.
+     */
+    public record FoldedEnquiry(UUID id, LocalDateTime createdAt, int submissionCount) {
+    }
+
+    private record Original(UUID id, LocalDateTime createdAt, AtomicInteger submissions) {
+    }
+
+    private record Resubmissions(int count, LocalDateTime lastAt) {
+        Resubmissions plus(Resubmissions other) {
+            return new Resubmissions(count + other.count, lastAt.isAfter(other.lastAt) ? lastAt : other.lastAt);
+        }
+    }
+
+    public EnquiryDeduplicator(JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${enquiry.dedup.window-minutes:30}") long windowMinutes,
+                               @Value("${enquiry.dedup.max-entries:100000}") long maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.window = Duration.ofMinutes(windowMinutes);
+        this.recentByMobile = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxEntries)
+                .build();
+        this.coalescedCounter = Counter.builder("enquiry.dedup.coalesced")
+                .description("Repeat enquiries folded into an existing row instead of inserted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the enquiry this submission was folded into, or empty if it should be stored as new.
+     */
+    public Optional<FoldedEnquiry> coalesce(String mobile, LocalDateTime at) {
+        Original existing = recentByMobile.getIfPresent(normalizeMobile(mobile));
+        if (existing == null) {
+            return Optional.empty();
+        }
+
+        pending.merge(existing.id(), new Resubmissions(1, at), Resubmissions::plus);
+        coalescedCounter.increment();
+        return Optional.of(new FoldedEnquiry(existing.id(), existing.createdAt(),
+                existing.submissions().incrementAndGet()));
+    }
+
+    /**
+     * Start a window for a newly stored enquiry. The window is fixed from the first submission,
+     * so a steady trickle of repeats can't keep one row open forever.
+     */
+    public void remember(Enquiry enquiry) {
+        recentByMobile.put(normalizeMobile(enquiry.getMobile()),
+                new Original(enquiry.getId(), enquiry.getCreatedAt(), new AtomicInteger(enquiry.getSubmissionCount())));
+    }
+
+    /**
+     * Digits only, without an Indian country code or trunk zero: "+91 98765-43210",
+     * "098765 43210" and "9876543210" are the same person.
+     */
+    static String normalizeMobile(String mobile) {
+        String digits = mobile == null ? "" : mobile.replaceAll("\\D", "");
+        if (digits.length() == 12 && digits.startsWith("91")) {
+            return digits.substring(2);
+        }
+        if (digits.length() == 11 && digits.startsWith("0")) {
+            return digits.substring(1);
+        }
+        return digits;
+    }
+
+    // ========== FLUSHING ==========
+
+    @Scheduled(fixedDelayString = "${enquiry.dedup.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Resubmissions> drained = new HashMap<>();
+        for (UUID id : pending.keySet()) {
+            Resubmissions value = pending.remove(id);
+            if (value != null) {
+                drained.put(id, value);
+            }
+        }
+
+        List<Map.Entry<UUID, Resubmissions>> entries = new ArrayList<>(drained.entrySet());
+        int updated = 0;
+        for (int from = 0; from < entries.size(); from += flushBatchSize) {
+            List<Map.Entry<UUID, Resubmissions>> chunk =
+                    entries.subList(from, Math.min(from + flushBatchSize, entries.size()));
+
+            List<Object> params = new ArrayList<>(chunk.size() * 3);
+            for (Map.Entry<UUID, Resubmissions> entry : chunk) {
+                params.add(entry.getKey());
+                params.add(entry.getValue().count());
+                params.add(Timestamp.valueOf(entry.getValue().lastAt()));
+            }
+
+            String sql = "UPDATE enquiries e SET submission_count = e.submission_count + v.n, " +
+                    "last_submitted_at = GREATEST(e.last_submitted_at, v.ts) " +
+                    "FROM (VALUES " + String.join(", ", Collections.nCopies(chunk.size(),
+                    "(CAST(? AS uuid), CAST(? AS integer), CAST(? AS timestamp))")) + ") " +
+                    "AS v(id, n, ts) WHERE e.id = v.id RETURNING e.id";
+
+            try {
+                Set<UUID> found = new HashSet<>(jdbcTemplate.queryForList(sql, UUID.class, params.toArray()));
+                updated += found.size();
+                chunk.stream().filter(entry -> !found.contains(entry.getKey())).forEach(this::carryOver);
+            } catch (Exception e) {
+                log.error("❌ Failed to flush enquiry resubmissions ({} rows), will retry: {}", chunk.size(), e.getMessage());
+                chunk.forEach(this::carryOver);
+            }
+        }
+
+        log.debug("🔁 Recorded repeat submissions on {} enquiries", updated);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Keep counts for rows not written yet, but not past the window - by then the row is either
+     * there or was never going to be.
+     */
+    private void carryOver(Map.Entry<UUID, Resubmissions> entry) {
+        if (entry.getValue().lastAt().plus(window).isAfter(LocalDateTime.now())) {
+            pending.merge(entry.getKey(), entry.getValue(), Resubmissions::plus);
+        } else {
+            log.warn("⚠️ Dropping {} repeat submission(s) for missing enquiry {}", entry.getValue().count(), entry.getKey());
+        }
+    }
+}
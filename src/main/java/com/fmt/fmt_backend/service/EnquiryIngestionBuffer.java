@@ -0,0 +1,472 @@
+package com.fmt.fmt_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fmt.fmt_backend.config.EnquiryIngestionProperties;
+import com.fmt.fmt_backend.entity.Enquiry;
+import com.fmt.fmt_backend.entity.id.UuidV7Generator;
+import com.fmt.fmt_backend.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind ingestion for the public enquiry form (enquiry.ingestion.mode=buffered).
+ *
+ * A submission is acknowledged once it is appended (and fsynced) to a local journal segment and
+ * sits in a bounded queue. fsyncs are group commits: writers append under the journal lock, then
+ * one of them forces the file for everyone who appended before it started, so a spike costs a
+ * handful of fsyncs rather than one per submission behind a single lock. A flusher thread inserts the queue into enquiries every
+ * flush-interval-ms, or sooner once flush-batch-size rows are waiting. Before each flush the
+ * journal rolls to a new segment, so a sealed segment holds exactly the rows being flushed and is
+ * deleted once they are committed. Segments left behind by a crash are replayed on startup -
+ * inserts are ON CONFLICT (id) DO NOTHING, so a row committed just before the crash isn't duplicated.
+ */
+@Component
+@ConditionalOnProperty(name = "enquiry.ingestion.mode", havingValue = "buffered")
+@Slf4j
+public class EnquiryIngestionBuffer {
+
+    private static final String COLUMNS = "id, name, mobile, city, experience_level, area_of_interest, message, " +
+            "status, ip_address, user_agent, created_at";
+    private static final int COLUMN_COUNT = 11;
+    private static final String SEGMENT_PREFIX = "enquiries-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EnquiryNotifier enquiryNotifier;
+    private final EnquiryStatsService enquiryStatsService;
+    private final ObjectMapper objectMapper;
+    private final EnquiryIngestionProperties properties;
+
+    private final ArrayBlockingQueue<Enquiry> queue;
+    private final Object journalLock = new Object();
+    private final Object flushSignal = new Object();
+    private final Object syncLock = new Object();
+    private final List<Enquiry> pending = new ArrayList<>();  // Drained but not yet committed (flusher only)
+    private final List<Path> sealedSegments = new ArrayList<>();
+    private final List<Path> recoveredSegments = new ArrayList<>();
+
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+    private final Counter rejectedCounter;
+    private final Counter replayedCounter;
+    private final Counter syncCounter;
+
+    private long appendedSeq;        // Guarded by journalLock
+    private long syncedSeq;          // Guarded by syncLock
+    private boolean syncInProgress;  // Guarded by syncLock
+
+    private FileChannel journal;
+    private Path journalSegment;
+    private long nextSegment;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public EnquiryIngestionBuffer(JdbcTemplate jdbcTemplate,
+                                  EnquiryNotifier enquiryNotifier,
+                                  EnquiryStatsService enquiryStatsService,
+                                  ObjectMapper objectMapper,
+                                  EnquiryIngestionProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enquiryNotifier = enquiryNotifier;
+        this.enquiryStatsService = enquiryStatsService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("enquiry.ingestion.queue.depth", queue, ArrayBlockingQueue::size)
+                .description("Acknowledged enquiries waiting to be inserted")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("enquiry.ingestion.flush")
+                .description("Time to insert one batch of buffered enquiries")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("enquiry.ingestion.lag")
+                .description("Time from acknowledging an enquiry to committing it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("enquiry.ingestion.rejected")
+                .description("Submissions rejected with 503 because the queue was full")
+                .register(meterRegistry);
+        this.replayedCounter = Counter.builder("enquiry.ingestion.replayed")
+                .description("Journaled enquiries inserted by crash recovery")
+                .register(meterRegistry);
+        this.syncCounter = Counter.builder("enquiry.ingestion.journal.syncs")
+                .description("Journal fsyncs - each covers every submission appended before it started")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Leftover segments are only remembered here - they are replayed once the schema is migrated.
+     */
+    @PostConstruct
+    void openJournal() throws IOException {
+        Path dir = Path.of(properties.getJournalDir());
+        Files.createDirectories(dir);
+
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(EnquiryIngestionBuffer::isSegment).sorted().forEach(recoveredSegments::add);
+        }
+        nextSegment = recoveredSegments.stream().mapToLong(EnquiryIngestionBuffer::segmentNumber).max().orElse(0) + 1;
+        openNextSegment();
+
+        log.info("📥 Buffered enquiry ingestion on (journal {}, queue {}, {} segment(s) to recover)",
+                dir.toAbsolutePath(), properties.getQueueCapacity(), recoveredSegments.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        flusher = new Thread(this::runFlusher, "enquiry-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        synchronized (flushSignal) {
+            flushSignal.notifyAll();
+        }
+        if (flusher != null) {
+            flusher.join(10_000);
+        }
+
+        log.info("💾 Flushing {} buffered enquiries before shutdown", queue.size() + pending.size());
+        flush(); // Anything that still fails stays in the journal for the next start
+        synchronized (journalLock) {
+            journal.close();
+        }
+    }
+
+    // ========== SUBMISSION ==========
+
+    /**
+     * Assigns id and created_at, journals the enquiry and queues it. Returns once it is durable.
+     */
+    public Enquiry submit(Enquiry enquiry) {
+        enquiry.setId(UuidV7Generator.next());
+        enquiry.setCreatedAt(LocalDateTime.now());
+
+        long seq;
+        synchronized (journalLock) {
+            if (queue.remainingCapacity() == 0) {
+                rejectedCounter.increment();
+                log.warn("🚦 Enquiry queue full ({}), rejecting submission", queue.size());
+                throw new ServiceOverloadedException("We're receiving a lot of enquiries right now. " +
+                        "Please try again shortly.", properties.getRetryAfterSeconds());
+            }
+            append(enquiry);
+            queue.add(enquiry);
+            seq = ++appendedSeq;
+        }
+
+        if (properties.isSyncJournal()) {
+            awaitDurable(seq);
+        }
+
+        if (queue.size() >= properties.getFlushBatchSize()) {
+            synchronized (flushSignal) {
+                flushSignal.notifyAll();
+            }
+        }
+        return enquiry;
+    }
+
+    // ========== FLUSHING ==========
+
+    private void runFlusher() {
+        replay();
+
+        boolean healthy = true;
+        while (running) {
+            synchronized (flushSignal) {
+                if (running && (!healthy || queue.size() < properties.getFlushBatchSize())) {
+                    try {
+                        flushSignal.wait(properties.getFlushIntervalMs());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+            healthy = flush();
+        }
+    }
+
+    /**
+     * Returns false if some rows could not be inserted; they are retried (and no new rows drained)
+     * on the next round, so a database outage backs up into the queue and then into 503s.
+     */
+    synchronized boolean flush() {
+        if (pending.isEmpty()) {
+            synchronized (journalLock) {
+                if (queue.isEmpty()) {
+                    return true;
+                }
+                try {
+                    Path sealed = journalSegment;
+                    openNextSegment();
+                    sealedSegments.add(sealed);
+                } catch (IOException e) {
+                    log.error("❌ Could not roll the enquiry journal, flushing into the current segment later: {}",
+                            e.getMessage());
+                    return false;
+                }
+                queue.drainTo(pending);
+            }
+        }
+
+        while (!pending.isEmpty()) {
+            List<Enquiry> chunk = pending.subList(0, Math.min(properties.getFlushBatchSize(), pending.size()));
+            try {
+                List<Enquiry> inserted = flushTimer.recordCallable(() -> insert(chunk));
+                LocalDateTime now = LocalDateTime.now();
+                inserted.forEach(enquiry -> lagTimer.record(Duration.between(enquiry.getCreatedAt(), now)));
+                onInserted(inserted);
+                chunk.clear();
+            } catch (Exception e) {
+                log.error("❌ Failed to insert {} buffered enquiries, will retry: {}", chunk.size(), e.getMessage());
+                return false;
+            }
+        }
+
+        deleteSegments(sealedSegments);
+        sealedSegments.clear();
+        return true;
+    }
+
+    /**
+     * Inserts every journaled enquiry from segments a previous run left behind.
+     */
+    void replay() {
+        if (recoveredSegments.isEmpty()) {
+            return;
+        }
+
+        List<Enquiry> journaled = new ArrayList<>();
+        for (Path segment : recoveredSegments) {
+            journaled.addAll(readSegment(segment));
+        }
+
+        try {
+            int inserted = 0;
+            for (int from = 0; from < journaled.size(); from += properties.getFlushBatchSize()) {
+                List<Enquiry> chunk = journaled.subList(from, Math.min(from + properties.getFlushBatchSize(), journaled.size()));
+                List<Enquiry> committed = insert(chunk);
+                onInserted(committed);
+                inserted += committed.size();
+            }
+            replayedCounter.increment(inserted);
+            log.info("♻️ Replayed enquiry journal: {} recovered, {} were not yet in the database",
+                    journaled.size(), inserted);
+
+            deleteSegments(recoveredSegments);
+            recoveredSegments.clear();
+        } catch (Exception e) {
+            // Segments stay on disk and are picked up again by the next start
+            log.error("❌ Enquiry journal replay failed ({} rows kept on disk): {}", journaled.size(), e.getMessage());
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /**
+     * One multi-row INSERT; returns the rows actually inserted (not already present).
+     */
+    private List<Enquiry> insert(List<Enquiry> chunk) {
+        List<Object> params = new ArrayList<>(chunk.size() * COLUMN_COUNT);
+        for (Enquiry enquiry : chunk) {
+            params.add(enquiry.getId());
+            params.add(enquiry.getName());
+            params.add(enquiry.getMobile());
+            params.add(enquiry.getCity());
+            params.add(enquiry.getExperienceLevel() != null ? enquiry.getExperienceLevel().name() : null);
+            params.add(enquiry.getAreaOfInterest());
+            params.add(enquiry.getMessage());
+            params.add(enquiry.getStatus().name());
+            params.add(enquiry.getIpAddress());
+            params.add(enquiry.getUserAgent());
+            params.add(Timestamp.valueOf(enquiry.getCreatedAt()));
+        }
+
+        String row = "(" + String.join(", ", Collections.nCopies(COLUMN_COUNT, "?")) + ")";
+        String sql = "INSERT INTO enquiries (" + COLUMNS + ") VALUES " +
+                String.join(", ", Collections.nCopies(chunk.size(), row)) +
+                " ON CONFLICT (id) DO NOTHING RETURNING id";
+
+        List<UUID> insertedIds = jdbcTemplate.queryForList(sql, UUID.class, params.toArray());
+
+        Map<UUID, Enquiry> byId = new HashMap<>();
+        chunk.forEach(enquiry -> byId.put(enquiry.getId(), enquiry));
+        return insertedIds.stream().map(byId::get).toList();
+    }
+
+    private void onInserted(List<Enquiry> inserted) {
+        for (Enquiry enquiry : inserted) {
+            enquiryStatsService.recordCreated(enquiry);
+            try {
+                enquiryNotifier.enquiryReceived(enquiry);
+            } catch (Exception e) {
+                log.error("❌ Failed to send enquiry email: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void append(Enquiry enquiry) {
+        try {
+            byte[] line = (objectMapper.writeValueAsString(enquiry) + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal enquiry", e);
+        }
+    }
+
+    /**
+     * Group commit: returns once an fsync that started after append number seq has completed.
+     * The first waiter with nothing in progress leads and forces the journal; the rest wait for it.
+     */
+    private void awaitDurable(long seq) {
+        boolean interrupted = false;
+        synchronized (syncLock) {
+            while (syncedSeq < seq && syncInProgress) {
+                try {
+                    syncLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true; // Can't acknowledge before it is durable - keep waiting
+                }
+            }
+            if (syncedSeq >= seq) {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            syncInProgress = true;
+        }
+
+        long covered;
+        FileChannel channel;
+        synchronized (journalLock) {
+            covered = appendedSeq;
+            channel = journal;
+        }
+
+        IOException failure = null;
+        try {
+            channel.force(false);
+            syncCounter.increment();
+        } catch (ClosedChannelException e) {
+            // Rolled meanwhile - openNextSegment forced it before closing
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        synchronized (syncLock) {
+            syncInProgress = false;
+            if (failure == null) {
+                syncedSeq = Math.max(syncedSeq, covered);
+            }
+            syncLock.notifyAll();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Failed to sync enquiry journal", failure);
+        }
+    }
+
+    private List<Enquiry> readSegment(Path segment) {
+        List<Enquiry> enquiries = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(segment)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    enquiries.add(objectMapper.readValue(line, Enquiry.class));
+                } catch (IOException e) {
+                    // Only the last line of a segment can be torn - it was never acknowledged
+                    log.warn("⚠️ Skipping unreadable journal line in {}", segment.getFileName());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read enquiry journal " + segment, e);
+        }
+        return enquiries;
+    }
+
+    // Caller holds journalLock (or is still constructing)
+    private void openNextSegment() throws IOException {
+        if (journal != null && properties.isSyncJournal()) {
+            journal.force(false); // Covers every append so far - waiters on this segment are done
+            syncCounter.increment();
+            synchronized (syncLock) {
+                syncedSeq = Math.max(syncedSeq, appendedSeq);
+                syncLock.notifyAll();
+            }
+        }
+        Path segment = Path.of(properties.getJournalDir(), String.format("%s%016d%s", SEGMENT_PREFIX, nextSegment++, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        if (journal != null) {
+            journal.close();
+        }
+        journal = channel;
+        journalSegment = segment;
+    }
+
+    private static void deleteSegments(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.warn("⚠️ Could not delete flushed journal segment {}: {}", segment, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,125 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.config.EnquiryNotificationProperties;
+import com.fmt.fmt_backend.entity.Enquiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Admin notifications for newly stored enquiries.
+ *
+ * Instead of one email per enquiry, enquiries are collected and sent as a single digest every
+ * digest-interval-ms, or as soon as digest-max-size are waiting. Enquiries for one of the
+ * immediate-interest-areas skip the digest and go out on their own straight away.
+ */
+@Component
+@Slf4j
+public class EnquiryNotifier {
+
+    private final SendGridEmailService emailService;
+    private final EnquiryNotificationProperties properties;
+    private final Set<String> immediateAreas;
+
+    private final Object lock = new Object();
+    private List<Enquiry> digest = new ArrayList<>();
+
+    private final Counter immediateCounter;
+    private final Counter digestCounter;
+    private final Counter digestedEnquiriesCounter;
+
+    public EnquiryNotifier(SendGridEmailService emailService,
+                           EnquiryNotificationProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.emailService = emailService;
+        this.properties = properties;
+        this.immediateAreas = properties.getImmediateInterestAreas().stream()
+                .map(EnquiryNotifier::normalizeArea)
+                .collect(Collectors.toUnmodifiableSet());
+
+        this.immediateCounter = Counter.builder("enquiry.notifications.sent")
+                .description("Admin enquiry emails sent")
+                .tag("type", "immediate")
+                .register(meterRegistry);
+        this.digestCounter = Counter.builder("enquiry.notifications.sent")
+                .description("Admin enquiry emails sent")
+                .tag("type", "digest")
+                .register(meterRegistry);
+        this.digestedEnquiriesCounter = Counter.builder("enquiry.notifications.digested")
+                .description("Enquiries reported through a digest instead of their own email")
+                .register(meterRegistry);
+    }
+
+    public void enquiryReceived(Enquiry enquiry) {
+        if (!properties.isDigestEnabled() || isImmediate(enquiry)) {
+            emailService.sendEnquiryNotification(enquiry);
+            immediateCounter.increment();
+            return;
+        }
+
+        List<Enquiry> full = null;
+        synchronized (lock) {
+            digest.add(enquiry);
+            if (digest.size() >= properties.getDigestMaxSize()) {
+                full = takeDigest();
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${enquiry.notifications.digest-interval-ms:120000}")
+    public void flush() {
+        List<Enquiry> batch;
+        synchronized (lock) {
+            if (digest.isEmpty()) {
+                return;
+            }
+            batch = takeDigest();
+        }
+        send(batch);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // The enquiries themselves are stored - only the email is lost
+            log.warn("⚠️ Could not send the pending enquiry digest on shutdown: {}", e.getMessage());
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private List<Enquiry> takeDigest() {
+        List<Enquiry> batch = digest;
+        digest = new ArrayList<>();
+        return batch;
+    }
+
+    private void send(List<Enquiry> batch) {
+        log.info("📧 Sending enquiry digest with {} enquiries", batch.size());
+        emailService.sendEnquiryDigest(batch);
+        digestCounter.increment();
+        digestedEnquiriesCounter.increment(batch.size());
+    }
+
+    private boolean isImmediate(Enquiry enquiry) {
+        return enquiry.getAreaOfInterest() != null && immediateAreas.contains(normalizeArea(enquiry.getAreaOfInterest()));
+    }
+
+    private static String normalizeArea(String area) {
+        return area.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -7,8 +7,11 @@ import com.fmt.fmt_backend.repository.EnquiryRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor  // ✅ This works with constructor injection
@@ -16,10 +19,18 @@ import org.springframework.transaction.annotation.Transactional;
 public class EnquiryService {
 
     private final EnquiryRepository enquiryRepository;
-    private final SendGridEmailService emailService;
+    private final EnquiryNotifier enquiryNotifier;
     private final HttpServletRequest request;
+    private final DeviceFingerprintService fingerprintService;
+    private final ObjectProvider<EnquiryIngestionBuffer> ingestionBuffer;
+    private final EnquiryDeduplicator deduplicator;
+    private final EnquiryStatsService enquiryStatsService;
 
-    @Transactional
+    /**
+     * A repeat from the same mobile within the dedup window is folded into the earlier enquiry.
+     * Otherwise direct mode inserts (one short transaction) and notifies inline; buffered mode only
+     * journals and queues - the row is inserted and the admin notified when the buffer flushes.
+     */
     public EnquiryResponse submitEnquiry(EnquiryRequest enquiryRequest) {
         log.info("📋 New enquiry from: {} - {}", enquiryRequest.getName(), enquiryRequest.getMobile());
 
@@ -31,16 +42,38 @@ public class EnquiryService {
                 .areaOfInterest(enquiryRequest.getAreaOfInterest())
                 .message(enquiryRequest.getMessage())
                 .status(Enquiry.EnquiryStatus.NEW)
-                .ipAddress(getClientIp())
+                .ipAddress(fingerprintService.clientIp(request))
                 .userAgent(request.getHeader("User-Agent"))
                 .build();
 
+        LocalDateTime now = LocalDateTime.now();
+        Optional<EnquiryDeduplicator.FoldedEnquiry> folded = deduplicator.coalesce(enquiryRequest.getMobile(), now);
+        if (folded.isPresent()) {
+            EnquiryDeduplicator.FoldedEnquiry original = folded.get();
+            log.info("🔁 Repeat enquiry from {} folded into {} (submission {})",
+                    enquiryRequest.getMobile(), original.id(), original.submissionCount());
+            enquiry.setId(original.id());
+            enquiry.setCreatedAt(original.createdAt());
+            enquiry.setSubmissionCount(original.submissionCount());
+            enquiry.setLastSubmittedAt(now);
+            return mapToResponse(enquiry);
+        }
+
+        EnquiryIngestionBuffer buffer = ingestionBuffer.getIfAvailable();
+        if (buffer != null) {
+            Enquiry queued = buffer.submit(enquiry);
+            deduplicator.remember(queued);
+            log.info("📥 Enquiry {} queued for insert", queued.getId());
+            return mapToResponse(queued);
+        }
+
         Enquiry savedEnquiry = enquiryRepository.save(enquiry);
+        deduplicator.remember(savedEnquiry);
+        enquiryStatsService.recordCreated(savedEnquiry);
         log.info("✅ Enquiry saved with ID: {}", savedEnquiry.getId());
 
         try {
-            emailService.sendEnquiryNotification(savedEnquiry);
-            log.info("📧 Enquiry notification email sent");
+            enquiryNotifier.enquiryReceived(savedEnquiry);
         } catch (Exception e) {
             log.error("❌ Failed to send enquiry email: {}", e.getMessage());
         }
@@ -48,15 +81,7 @@ public class EnquiryService {
         return mapToResponse(savedEnquiry);
     }
 
-    private String getClientIp() {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader != null && !xfHeader.isEmpty()) {
-            return xfHeader.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
-    }
-
-    private EnquiryResponse mapToResponse(Enquiry enquiry) {
+    static EnquiryResponse mapToResponse(Enquiry enquiry) {
         return EnquiryResponse.builder()
                 .id(enquiry.getId())
                 .name(enquiry.getName())
@@ -68,6 +93,8 @@ public class EnquiryService {
                 .message(enquiry.getMessage())
                 .status(enquiry.getStatus().name())
                 .createdAt(enquiry.getCreatedAt())
+                .submissionCount(enquiry.getSubmissionCount())
+                .lastSubmittedAt(enquiry.getLastSubmittedAt())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,317 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.dto.EnquiryStatsResponse;
+import com.fmt.fmt_backend.entity.Enquiry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-day enquiry counters by status, city and experience level, kept in memory and rolled up
+ * into enquiry_daily_stats - dashboards read these instead of COUNT(*) over enquiries.
+ *
+ * Counts are keyed by the day an enquiry was received; a status change moves it between status
+ * buckets of that day. Changes are held as deltas and flushed with additive upserts, after which
+ * the rollup table is reloaded - so every instance converges on the same numbers, including
+ * other instances' writes. Only the last cached-days days are held and reloaded, so a flush costs
+ * the same however old the table gets; ranges reaching further back read the older days from the
+ * table on demand. On startup the rollup is only loaded; a full rebuild from enquiries
+ * is an admin action (or enquiry.stats.rebuild-on-startup for a single instance).
+ */
+@Service
+@Slf4j
+public class EnquiryStatsService {
+
+    static final String TOTAL = "total";
+    static final String STATUS = "status";
+    static final String CITY = "city";
+    static final String EXPERIENCE_LEVEL = "experience_level";
+
+    private static final String ALL = "all";
+    private static final String UNKNOWN = "unknown";
+
+    // Normalisation here must match normalizeCity / valueOrUnknown below
+    private static final String REBUILD_SQL = """
+            INSERT INTO enquiry_daily_stats (day, dimension, value, count)
+            WITH e AS (
+                SELECT CAST(created_at AS date) AS day,
+                       COALESCE(status, 'unknown') AS status,
+                       COALESCE(NULLIF(lower(btrim(city)), ''), 'unknown') AS city,
+                       COALESCE(experience_level, 'unknown') AS level
+                FROM enquiries
+                WHERE created_at IS NOT NULL
+            )
+            SELECT day, 'total', 'all', COUNT(*) FROM e GROUP BY day
+            UNION ALL SELECT day, 'status', status, COUNT(*) FROM e GROUP BY day, status
+            UNION ALL SELECT day, 'city', city, COUNT(*) FROM e GROUP BY day, city
+            UNION ALL SELECT day, 'experience_level', level, COUNT(*) FROM e GROUP BY day, level
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    record StatKey(LocalDate day, String dimension, String value) {
+    }
+
+    // Rollup rows for days >= since; older days are read from the table when asked for
+    private record Persisted(LocalDate since, Map<LocalDate, Map<StatKey, Long>> days) {
+    }
+
+    private volatile Persisted persisted = new Persisted(LocalDate.MIN, Map.of());
+    private volatile Map<StatKey, Long> inFlight = Map.of();  // Being flushed - still counted by reads
+    private final ConcurrentHashMap<StatKey, Long> pending = new ConcurrentHashMap<>();
+
+    @Value("${enquiry.stats.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${enquiry.stats.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${enquiry.stats.cached-days:90}")
+    private int cachedDays;
+
+    public EnquiryStatsService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // ========== RECORDING ==========
+
+    /**
+     * Call once the enquiry row is committed (direct save or buffered flush).
+     */
+    public void recordCreated(Enquiry enquiry) {
+        if (enquiry.getCreatedAt() == null) {
+            return;
+        }
+        LocalDate day = enquiry.getCreatedAt().toLocalDate();
+        add(new StatKey(day, TOTAL, ALL), 1);
+        add(new StatKey(day, STATUS, valueOrUnknown(enquiry.getStatus())), 1);
+        add(new StatKey(day, CITY, normalizeCity(enquiry.getCity())), 1);
+        add(new StatKey(day, EXPERIENCE_LEVEL, valueOrUnknown(enquiry.getExperienceLevel())), 1);
+    }
+
+    /**
+     * Applied only if the surrounding transaction commits.
+     */
+    public void recordStatusChange(Enquiry enquiry, Enquiry.EnquiryStatus from, Enquiry.EnquiryStatus to) {
+        if (enquiry.getCreatedAt() == null || from == to) {
+            return;
+        }
+        LocalDate day = enquiry.getCreatedAt().toLocalDate();
+        Runnable change = () -> {
+            add(new StatKey(day, STATUS, valueOrUnknown(from)), -1);
+            add(new StatKey(day, STATUS, valueOrUnknown(to)), 1);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    // ========== READING ==========
+
+    /**
+     * Aggregates for received days from..to (inclusive) - one map lookup per cached day, one
+     * range query for any part older than the cache.
+     */
+    public EnquiryStatsResponse getStats(LocalDate from, LocalDate to) {
+        Map<StatKey, Long> counts = new HashMap<>();
+        Persisted snapshot = persisted;
+        if (from.isBefore(snapshot.since())) {
+            LocalDate olderTo = to.isBefore(snapshot.since()) ? to : snapshot.since().minusDays(1);
+            jdbcTemplate.query("SELECT day, dimension, value, count FROM enquiry_daily_stats WHERE day BETWEEN ? AND ?",
+                    rs -> {
+                        counts.merge(new StatKey(rs.getDate("day").toLocalDate(), rs.getString("dimension"),
+                                rs.getString("value")), rs.getLong("count"), Long::sum);
+                    }, Date.valueOf(from), Date.valueOf(olderTo));
+        }
+        LocalDate cachedFrom = from.isBefore(snapshot.since()) ? snapshot.since() : from;
+        for (LocalDate day = cachedFrom; !day.isAfter(to); day = day.plusDays(1)) {
+            Map<StatKey, Long> dayCounts = snapshot.days().get(day);
+            if (dayCounts != null) {
+                dayCounts.forEach((key, count) -> counts.merge(key, count, Long::sum));
+            }
+        }
+        for (Map<StatKey, Long> unflushed : List.of(inFlight, pending)) {
+            unflushed.forEach((key, delta) -> {
+                if (!key.day().isBefore(from) && !key.day().isAfter(to)) {
+                    counts.merge(key, delta, Long::sum);
+                }
+            });
+        }
+
+        Map<LocalDate, Long> perDay = new TreeMap<>();
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byCity = new TreeMap<>();
+        Map<String, Long> byLevel = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<StatKey, Long> entry : counts.entrySet()) {
+            StatKey key = entry.getKey();
+            long count = entry.getValue();
+            switch (key.dimension()) {
+                case TOTAL -> {
+                    perDay.merge(key.day(), count, Long::sum);
+                    total += count;
+                }
+                case STATUS -> byStatus.merge(key.value(), count, Long::sum);
+                case CITY -> byCity.merge(key.value(), count, Long::sum);
+                case EXPERIENCE_LEVEL -> byLevel.merge(key.value(), count, Long::sum);
+                default -> { }
+            }
+        }
+        byStatus.values().removeIf(count -> count == 0);
+
+        return EnquiryStatsResponse.builder()
+                .from(from)
+                .to(to)
+                .total(total)
+                .perDay(perDay)
+                .byStatus(byStatus)
+                .byCity(byCity)
+                .byExperienceLevel(byLevel)
+                .build();
+    }
+
+    // ========== ROLLUP ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Recompute the whole rollup from enquiries. The scan already counts every committed enquiry,
+     * so this instance's unflushed deltas are dropped rather than applied on top of it. Deltas
+     * still pending on other instances are not, so run it while enquiry writes are quiet.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Blocks concurrent flushes until the new rollup commits
+            jdbcTemplate.execute("LOCK TABLE enquiry_daily_stats IN EXCLUSIVE MODE");
+            pending.clear();
+            jdbcTemplate.update("DELETE FROM enquiry_daily_stats");
+            jdbcTemplate.update(REBUILD_SQL);
+        });
+        reload();
+        log.info("📊 Rebuilt enquiry stats in {} ms", System.currentTimeMillis() - start);
+    }
+
+    // Synchronized with rebuild so a drained batch can't be upserted on top of a fresh rebuild
+    @Scheduled(fixedDelayString = "${enquiry.stats.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        Map<StatKey, Long> drained = new HashMap<>();
+        for (StatKey key : pending.keySet()) {
+            Long delta = pending.remove(key);
+            if (delta != null && delta != 0) {
+                drained.put(key, delta);
+            }
+        }
+
+        if (!drained.isEmpty()) {
+            inFlight = drained;
+            try {
+                upsert(drained);
+            } catch (Exception e) {
+                log.error("❌ Failed to flush enquiry stats ({} counters), will retry: {}", drained.size(), e.getMessage());
+                drained.forEach(this::add);
+                inFlight = Map.of();
+                return;
+            }
+        }
+
+        // Also picks up what other instances flushed
+        try {
+            reload();
+        } finally {
+            inFlight = Map.of();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void add(StatKey key, long delta) {
+        pending.merge(key, delta, Long::sum);
+    }
+
+    // One transaction for every chunk: a failure part-way must not leave some chunks applied and then retried
+    private void upsert(Map<StatKey, Long> deltas) {
+        List<Map.Entry<StatKey, Long>> entries = new ArrayList<>(deltas.entrySet());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < entries.size(); from += flushBatchSize) {
+                List<Map.Entry<StatKey, Long>> chunk = entries.subList(from, Math.min(from + flushBatchSize, entries.size()));
+
+                List<Object> params = new ArrayList<>(chunk.size() * 4);
+                for (Map.Entry<StatKey, Long> entry : chunk) {
+                    params.add(Date.valueOf(entry.getKey().day()));
+                    params.add(entry.getKey().dimension());
+                    params.add(entry.getKey().value());
+                    params.add(entry.getValue());
+                }
+
+                jdbcTemplate.update("INSERT INTO enquiry_daily_stats (day, dimension, value, count) VALUES " +
+                        String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?, ?)")) +
+                        " ON CONFLICT (day, dimension, value) DO UPDATE " +
+                        "SET count = enquiry_daily_stats.count + EXCLUDED.count", params.toArray());
+            }
+        });
+    }
+
+    private void reload() {
+        LocalDate since = LocalDate.now().minusDays(cachedDays);
+        Map<LocalDate, Map<StatKey, Long>> loaded = new HashMap<>();
+        jdbcTemplate.query("SELECT day, dimension, value, count FROM enquiry_daily_stats WHERE day >= ?", rs -> {
+            LocalDate day = rs.getDate("day").toLocalDate();
+            loaded.computeIfAbsent(day, d -> new HashMap<>())
+                    .put(new StatKey(day, rs.getString("dimension"), rs.getString("value")), rs.getLong("count"));
+        }, Date.valueOf(since));
+        persisted = new Persisted(since, loaded);
+    }
+
+    static String normalizeCity(String city) {
+        if (city == null || city.isBlank()) {
+            return UNKNOWN;
+        }
+        return city.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String valueOrUnknown(Enum<?> value) {
+        return value != null ? value.name() : UNKNOWN;
+    }
+}
@@ -10,6 +10,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -42,7 +46,16 @@ public class OtpService {
 
     @Transactional
     public String generateOtp(String identifier, OtpEntity.OtpType type) {
-        log.info("Generating OTP for: {} ({})", identifier, type);
+        return generateOtps(type, List.of(identifier)).get(identifier);
+    }
+
+    /**
+     * Issue one OTP per identifier (login sends to email and mobile at once). The cooldown is
+     * checked for all of them in one query and the rows are inserted as one JDBC batch.
+     */
+    @Transactional
+    public Map<String, String> generateOtps(OtpEntity.OtpType type, List<String> identifiers) {
+        log.info("Generating OTP for: {} ({})", identifiers, type);
 
         //String clientIp = getClientIp();
 
@@ -57,32 +70,37 @@ public class OtpService {
 
         // Check cooldown
         LocalDateTime cooldownTime = LocalDateTime.now().minusSeconds(resendCooldownSeconds);
-        long recentCount = otpRepository.countByIdentifierAndCreatedAtAfter(identifier, cooldownTime);
+        long recentCount = otpRepository.countByIdentifierInAndCreatedAtAfter(identifiers, cooldownTime);
 
         if (recentCount >= 1) {
-            log.warn("OTP cooldown active for: {}", identifier);
+            log.warn("OTP cooldown active for: {}", identifiers);
             throw new RuntimeException("Please wait " + resendCooldownSeconds + " seconds before requesting new OTP");
         }
 
-        // Generate OTP
-        String otp = generateRandomOtp();
-
-
-        // Save to database
-        OtpEntity otpEntity = new OtpEntity();
-        otpEntity.setIdentifier(identifier);
-        otpEntity.setOtpCode(otp);
-        otpEntity.setType(type);
-        otpEntity.setExpiresAt(LocalDateTime.now().plusMinutes(expiryMinutes));
-        //otpEntity.setIpAddress(clientIp);
+        // Generate OTPs
+        Map<String, String> otps = new LinkedHashMap<>();
+        List<OtpEntity> entities = new ArrayList<>(identifiers.size());
+        for (String identifier : identifiers) {
+            String otp = generateRandomOtp();
+            otps.put(identifier, otp);
+
+            OtpEntity otpEntity = new OtpEntity();
+            otpEntity.setIdentifier(identifier);
+            otpEntity.setOtpCode(otp);
+            otpEntity.setType(type);
+            otpEntity.setExpiresAt(LocalDateTime.now().plusMinutes(expiryMinutes));
+            //otpEntity.setIpAddress(clientIp);
+            entities.add(otpEntity);
+        }
 
-        otpRepository.save(otpEntity);
+        // Save to database (ids are assigned in Java, so the inserts batch at flush)
+        otpRepository.saveAll(entities);
 
         // Mask for logs in production
-        String logOtp = "production".equals(environment) ? "***" : otp;
-        log.info("Generated OTP for {}: {}", identifier, logOtp);
+        otps.forEach((identifier, otp) ->
+                log.info("Generated OTP for {}: {}", identifier, "production".equals(environment) ? "***" : otp));
 
-        return otp;
+        return otps;
     }
 
     @Transactional
@@ -0,0 +1,163 @@
+package com.fmt.fmt_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Keeps the range partitions of otps (daily) and refresh_tokens (weekly) rolling.
+ *
+ * Future partitions are created ahead of time so inserts never land in the DEFAULT partition,
+ * and partitions whose whole range is past retention are dropped - a catalog operation instead
+ * of deleting millions of rows. Runs on startup and then on partitioning.cron.
+ *
+ * Partition bounds follow the application clock, not the database's current_date: created_at is
+ * stamped by Hibernate in this JVM, so that is the clock that decides which partition a row hits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceService {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private Clock clock = Clock.systemDefaultZone(); // Same zone @CreationTimestamp uses
+
+    @Value("${partitioning.otps.days-ahead:7}")
+    private int otpDaysAhead;
+
+    @Value("${partitioning.otps.retention-days:2}")
+    private int otpRetentionDays;
+
+    @Value("${partitioning.refresh-tokens.weeks-ahead:4}")
+    private int refreshTokenWeeksAhead;
+
+    @Value("${jwt.refresh-token-expiration:1209600000}")
+    private long refreshTokenExpirationMs;
+
+    private record PartitionedTable(String name, int periodDays) {
+        LocalDate periodStart(LocalDate date) {
+            return periodDays == 7 ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date;
+        }
+    }
+
+    private static final PartitionedTable OTPS = new PartitionedTable("otps", 1);
+    private static final PartitionedTable REFRESH_TOKENS = new PartitionedTable("refresh_tokens", 7);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        warnIfDatabaseClockDiffers();
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${partitioning.cron:0 15 * * * *}")
+    public void maintainPartitions() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDate today = now.toLocalDate();
+
+        int created = createAhead(OTPS, today, today.plusDays(otpDaysAhead));
+        created += createAhead(REFRESH_TOKENS, today, today.plusWeeks(refreshTokenWeeksAhead));
+
+        // A partition is dropped once its newest possible row is past retention
+        LocalDateTime otpCutoff = now.minusDays(otpRetentionDays);
+        LocalDateTime tokenCutoff = now
+                .minus(Duration.ofMillis(refreshTokenExpirationMs))
+                .minusDays(1); // Grace for clock skew / in-flight refreshes
+
+        int dropped = dropExpired(OTPS, otpCutoff);
+        dropped += dropExpired(REFRESH_TOKENS, tokenCutoff);
+
+        warnIfDefaultHasRows(OTPS);
+        warnIfDefaultHasRows(REFRESH_TOKENS);
+
+        log.info("🗂️ Partition maintenance: {} created, {} dropped in {} ms",
+                created, dropped, System.currentTimeMillis() - start);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private int createAhead(PartitionedTable table, LocalDate from, LocalDate until) {
+        int created = 0;
+        for (LocalDate day = table.periodStart(from); !day.isAfter(until); day = day.plusDays(table.periodDays())) {
+            String partition = table.name() + "_p" + day.format(SUFFIX);
+            if (partitionExists(partition)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        partition, table.name(), day, day.plusDays(table.periodDays())));
+                created++;
+                log.debug("➕ Created partition {}", partition);
+            } catch (Exception e) {
+                // Typically rows for this range already sit in the DEFAULT partition
+                log.error("❌ Could not create partition {}: {}", partition, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    private int dropExpired(PartitionedTable table, LocalDateTime cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = ? AND c.relname ~ ?",
+                String.class, table.name(), "^" + table.name() + "_p[0-9]{8}$");
+
+        int dropped = 0;
+        for (String partition : partitions) {
+            LocalDate start = LocalDate.parse(partition.substring(partition.length() - 8), SUFFIX);
+            LocalDateTime upperBound = start.plusDays(table.periodDays()).atStartOfDay();
+
+            if (!upperBound.isAfter(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                dropped++;
+                log.info("🗑️ Dropped expired partition {}", partition);
+            }
+        }
+        return dropped;
+    }
+
+    private boolean partitionExists(String partition) {
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    // V3 laid out its first partitions by the database's current_date; from here on only this clock counts
+    private void warnIfDatabaseClockDiffers() {
+        LocalDateTime databaseNow = jdbcTemplate.queryForObject("SELECT localtimestamp", LocalDateTime.class);
+        if (databaseNow != null) {
+            Duration skew = Duration.between(LocalDateTime.now(clock), databaseNow).abs();
+            if (skew.toMinutes() >= 30) {
+                log.warn("⚠️ Database session clock is {} min away from the application clock - " +
+                        "partitions follow the application clock", skew.toMinutes());
+            }
+        }
+    }
+
+    private void warnIfDefaultHasRows(PartitionedTable table) {
+        Boolean hasRows = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table.name() + "_default)", Boolean.class);
+        if (Boolean.TRUE.equals(hasRows)) {
+            log.warn("⚠️ {}_default contains rows - partitions were not created in time", table.name());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.fmt.fmt_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it from scratch when a versioned
+ * row (User, DeviceEntity) was changed underneath it.
+ *
+ * The retry has to own the transaction: after a conflict the persistence context is stale and
+ * the transaction is rollback-only. Called inside an existing transaction, the work just joins
+ * it and the outermost caller is the one that retries.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RetryOnConflict {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${optimistic-locking.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${optimistic-locking.backoff-ms:25}")
+    private long backoffMs;
+
+    public <T> T inTransaction(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("⚔️ {} still conflicting after {} attempts, giving up", operation, attempt);
+                    throw e;
+                }
+                Counter.builder("db.optimistic_lock.retries")
+                        .description("Units of work re-run after a concurrent update of a versioned row")
+                        .tag("operation", operation)
+                        .register(meterRegistry)
+                        .increment();
+                log.info("♻️ {} hit a concurrent update (attempt {}/{}), retrying", operation, attempt, maxAttempts);
+                backOff(operation, attempt);
+            }
+        }
+    }
+
+    private void backOff(String operation, int attempt) {
+        try {
+            // Jittered, so two writers that collided don't collide again in lockstep
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying " + operation, e);
+        }
+    }
+}
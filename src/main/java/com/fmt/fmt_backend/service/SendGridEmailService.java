@@ -16,10 +16,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -223,6 +225,65 @@ public class SendGridEmailService {
         sendEmail(properties.getAdminEmail(), subject, htmlContent, sender, EmailType.ENQUIRY);
     }
 
+    /**
+     * One summary email for a batch of enquiries (see EnquiryNotifier).
+     */
+    @Async
+    public void sendEnquiryDigest(List<Enquiry> enquiries) {
+        SenderInfo sender = senderMap.get(EmailType.ENQUIRY);
+        String subject = String.format("📋 %d New Enquir%s - Trading App",
+                enquiries.size(), enquiries.size() == 1 ? "y" : "ies");
+
+        StringBuilder rows = new StringBuilder();
+        for (Enquiry enquiry : enquiries) {
+            rows.append(String.format("""
+                        <tr>
+                            <td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td>
+                        </tr>
+                    """,
+                    escape(enquiry.getCreatedAt() != null ? enquiry.getCreatedAt().withNano(0).toString() : null),
+                    escape(enquiry.getName()),
+                    escape(enquiry.getMobile()),
+                    escape(enquiry.getCity()),
+                    escape(enquiry.getExperienceLevel() != null ? enquiry.getExperienceLevel().name() : null),
+                    escape(enquiry.getAreaOfInterest()),
+                    escape(enquiry.getMessage())));
+        }
+
+        String htmlContent = String.format("""
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <style>
+                    body { font-family: Arial, sans-serif; line-height: 1.4; }
+                    .header { background-color: #4CAF50; color: white; padding: 10px; text-align: center; }
+                    table { border-collapse: collapse; width: 100%%; font-size: 13px; }
+                    th, td { border: 1px solid #ddd; padding: 6px; text-align: left; vertical-align: top; }
+                    th { background-color: #f2f2f2; }
+                    .footer { margin-top: 20px; color: #666; font-size: 12px; text-align: center; }
+                </style>
+            </head>
+            <body>
+                <div class="header">
+                    <h2>📋 %d New Enquir%s</h2>
+                </div>
+                <table>
+                    <tr>
+                        <th>Received</th><th>Name</th><th>Mobile</th><th>City</th><th>Experience</th><th>Interest</th><th>Message</th>
+                    </tr>
+            %s
+                </table>
+                <div class="footer">
+                    This is an automated digest from Trading App<br>
+                    Please contact the enquirers within 24 hours.
+                </div>
+            </body>
+            </html>
+            """, enquiries.size(), enquiries.size() == 1 ? "y" : "ies", rows);
+
+        sendEmail(properties.getAdminEmail(), subject, htmlContent, sender, EmailType.ENQUIRY);
+    }
+
     private void sendEmail(String to, String subject, String htmlContent,
                            SenderInfo sender, EmailType type) {
         if (!emailEnabled) {
@@ -340,6 +401,11 @@ public class SendGridEmailService {
             """, message);
     }
 
+    // Enquiry fields are public form input
+    private static String escape(String value) {
+        return value != null ? HtmlUtils.htmlEscape(value) : "-";
+    }
+
     private String maskEmail(String email) {
         if (email == null || !email.contains("@")) return "invalid";
         String[] parts = email.split("@");
@@ -14,7 +14,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +33,7 @@ public class TokenService {
     private final DeviceRepository deviceRepository;
     private final UserRepository userRepository;
     private final DeviceService deviceService;
+    private final ActivityTracker activityTracker;
 
     @Value("${jwt.secret}")
     private String secretKey;
@@ -122,7 +122,7 @@ public class TokenService {
      * Refresh access token using valid refresh token
      */
     @Transactional
-    public Map<String, Object> refreshAccessToken(String refreshTokenValue, String currentDeviceFingerprint) {
+    public Map<String, Object> refreshAccessToken(String refreshTokenValue, HttpServletRequest request) {
         log.info("🔄 Refreshing access token");
 
 
@@ -137,7 +137,7 @@ public class TokenService {
         }
 
         // Validate device fingerprint matches
-        if (!refreshToken.getDevice().getDeviceFingerprint().equals(currentDeviceFingerprint)) {
+        if (!deviceService.matchesCurrentDevice(refreshToken.getDevice(), request)) {
             log.warn("❌ Device fingerprint mismatch for refresh token");
             throw new RuntimeException("Invalid device for refresh token");
         }
@@ -145,9 +145,8 @@ public class TokenService {
         User user = refreshToken.getUser();
         DeviceEntity device = refreshToken.getDevice();
 
-        // Update device last active
-        device.setLastActiveAt(LocalDateTime.now());
-        deviceRepository.save(device);
+        // Update device last active (written behind, batched with other refreshes)
+        activityTracker.recordDeviceActivity(user.getId(), device.getId(), LocalDateTime.now());
 
         // Generate new access token (keep same refresh token for now)
         String newAccessToken = generateAccessToken(user, device);
@@ -167,7 +166,7 @@ public class TokenService {
      * Rotate refresh token (issue new one, revoke old)
      */
     @Transactional
-    public Map<String, Object> rotateRefreshToken(String oldRefreshTokenValue, String currentDeviceFingerprint) {
+    public Map<String, Object> rotateRefreshToken(String oldRefreshTokenValue, HttpServletRequest request) {
         log.info("🔄 Rotating refresh token");
 
         // Find and validate old token
@@ -178,7 +177,7 @@ public class TokenService {
             throw new RuntimeException("Refresh token expired or revoked");
         }
 
-        if (!oldToken.getDevice().getDeviceFingerprint().equals(currentDeviceFingerprint)) {
+        if (!deviceService.matchesCurrentDevice(oldToken.getDevice(), request)) {
             throw new RuntimeException("Invalid device for refresh token");
         }
 
@@ -192,9 +191,8 @@ public class TokenService {
         User user = oldToken.getUser();
         DeviceEntity device = oldToken.getDevice();
 
-        // Update device last active
-        device.setLastActiveAt(LocalDateTime.now());
-        deviceRepository.save(device);
+        // Update device last active (written behind, batched with other refreshes)
+        activityTracker.recordDeviceActivity(user.getId(), device.getId(), LocalDateTime.now());
 
         // Generate new tokens
         String newAccessToken = generateAccessToken(user, device);
@@ -273,20 +271,6 @@ public class TokenService {
         }
     }
 
-    /**
-     * Cleanup expired and revoked tokens (runs daily at 2 AM)
-     */
-    @Scheduled(cron = "0 0 2 * * ?")
-    @Transactional
-    public void cleanupExpiredTokens() {
-        log.info("🧹 Starting cleanup of expired refresh tokens");
-
-        LocalDateTime now = LocalDateTime.now();
-        refreshTokenRepository.deleteExpiredAndRevoked(now);
-
-        log.info("✅ Cleanup completed");
-    }
-
     /**
      * Get signing key for JWT
      */
@@ -298,6 +282,7 @@ public class TokenService {
     /**
      * Get remaining validity of refresh token in seconds
      */
+    @Transactional(readOnly = true)
     public long getRefreshTokenValidity(String refreshTokenValue) {
         RefreshTokenEntity token = refreshTokenRepository.findByToken(refreshTokenValue)
                 .orElseThrow(() -> new RuntimeException("Token not found"));
@@ -0,0 +1,280 @@
+package com.fmt.fmt_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Classifies User-Agent strings into browser, version, OS and device class.
+ *
+ * All rule tokens are compiled once into an Aho-Corasick automaton, so a user agent is
+ * classified in a single left-to-right pass no matter how many rules there are. When several
+ * tokens of the same kind match (Edge and Opera also send "Chrome/" and "Safari/", iPhones
+ * send "Mac OS X"), the rule with the highest priority wins - not the one checked first.
+ *
+ * Real traffic has few distinct agents, so results are kept in a bounded LRU cache.
+ */
+@Component
+@Slf4j
+public class UserAgentClassifier {
+
+    private static final int MAX_CLASSIFIED_LENGTH = 512; // Ignore anything past this - real UAs are far shorter
+    private static final int ALPHABET = 128;              // Rule tokens are ASCII; other chars just reset the match
+
+    public enum DeviceClass { DESKTOP, MOBILE, TABLET, TV, BOT }
+
+    public record UserAgentInfo(String browser, String browserVersion, String os, DeviceClass deviceClass) {
+
+        public boolean isBot() {
+            return deviceClass == DeviceClass.BOT;
+        }
+
+        /**
+         * "Chrome on Windows", "Safari on iOS" - what users see in their device list.
+         */
+        public String displayName() {
+            return browser + " on " + os;
+        }
+    }
+
+    private static final UserAgentInfo UNKNOWN =
+            new UserAgentInfo("Unknown Browser", null, "Unknown OS", DeviceClass.DESKTOP);
+
+    private enum Kind { BROWSER, OS, DEVICE, VERSION_HINT }
+
+    private record Rule(String token, Kind kind, String value, int priority, boolean captureVersion) {
+    }
+
+    // Higher priority wins within a kind
+    private static final List<Rule> RULES = List.of(
+            // Browsers - Chromium forks first, since they all also claim Chrome and Safari
+            new Rule("edg/", Kind.BROWSER, "Edge", 100, true),
+            new Rule("edga/", Kind.BROWSER, "Edge", 100, true),
+            new Rule("edgios/", Kind.BROWSER, "Edge", 100, true),
+            new Rule("edge/", Kind.BROWSER, "Edge", 100, true),
+            new Rule("opr/", Kind.BROWSER, "Opera", 95, true),
+            new Rule("opera/", Kind.BROWSER, "Opera", 95, true),
+            new Rule("opios/", Kind.BROWSER, "Opera", 95, true),
+            new Rule("samsungbrowser/", Kind.BROWSER, "Samsung Internet", 90, true),
+            new Rule("yabrowser/", Kind.BROWSER, "Yandex", 90, true),
+            new Rule("fxios/", Kind.BROWSER, "Firefox", 80, true),
+            new Rule("firefox/", Kind.BROWSER, "Firefox", 75, true),
+            new Rule("crios/", Kind.BROWSER, "Chrome", 70, true),
+            new Rule("chrome/", Kind.BROWSER, "Chrome", 60, true),
+            new Rule("safari/", Kind.BROWSER, "Safari", 10, false),
+            new Rule("version/", Kind.VERSION_HINT, null, 0, true),
+
+            // Operating systems - mobile platforms before the desktop kernels they mention
+            new Rule("iphone", Kind.OS, "iOS", 100, false),
+            new Rule("ipad", Kind.OS, "iOS", 100, false),
+            new Rule("ipod", Kind.OS, "iOS", 100, false),
+            new Rule("android", Kind.OS, "Android", 90, false),
+            new Rule("cros ", Kind.OS, "ChromeOS", 80, false),
+            new Rule("windows phone", Kind.OS, "Windows Phone", 95, false),
+            new Rule("windows nt 10.0", Kind.OS, "Windows", 70, false), // Windows 11 still reports 10.0
+            new Rule("windows nt 6.3", Kind.OS, "Windows 8.1", 70, false),
+            new Rule("windows nt 6.1", Kind.OS, "Windows 7", 70, false),
+            new Rule("windows", Kind.OS, "Windows", 60, false),
+            new Rule("mac os x", Kind.OS, "macOS", 50, false),
+            new Rule("macintosh", Kind.OS, "macOS", 50, false),
+            new Rule("linux", Kind.OS, "Linux", 10, false),
+
+            // Device class. "bot" is a bare substring, so handset brands that contain it outrank it
+            new Rule("cubot", Kind.DEVICE, DeviceClass.MOBILE.name(), 110, false),
+            new Rule("bot", Kind.DEVICE, DeviceClass.BOT.name(), 100, false),
+            new Rule("crawler", Kind.DEVICE, DeviceClass.BOT.name(), 100, false),
+            new Rule("spider", Kind.DEVICE, DeviceClass.BOT.name(), 100, false),
+            new Rule("headlesschrome", Kind.DEVICE, DeviceClass.BOT.name(), 100, false),
+            new Rule("curl/", Kind.DEVICE, DeviceClass.BOT.name(), 100, false),
+            new Rule("wget/", Kind.DEVICE, DeviceClass.BOT.name(), 100, false),
+            new Rule("python-requests", Kind.DEVICE, DeviceClass.BOT.name(), 100, false),
+            new Rule("smart-tv", Kind.DEVICE, DeviceClass.TV.name(), 80, false),
+            new Rule("smarttv", Kind.DEVICE, DeviceClass.TV.name(), 80, false),
+            new Rule("tizen", Kind.DEVICE, DeviceClass.TV.name(), 70, false),
+            new Rule("ipad", Kind.DEVICE, DeviceClass.TABLET.name(), 60, false),
+            new Rule("tablet", Kind.DEVICE, DeviceClass.TABLET.name(), 60, false),
+            new Rule("mobile", Kind.DEVICE, DeviceClass.MOBILE.name(), 50, false),
+            new Rule("iphone", Kind.DEVICE, DeviceClass.MOBILE.name(), 50, false),
+            new Rule("android", Kind.DEVICE, DeviceClass.TABLET.name(), 20, false) // Android without "Mobile" is a tablet
+    );
+
+    // ========== COMPILED AUTOMATON ==========
+
+    private final int[][] transitions;   // state -> ASCII char -> next state (complete DFA)
+    private final int[][] outputs;       // state -> indexes into RULES ending here (incl. via failure links)
+
+    private final Map<String, UserAgentInfo> cache;
+
+    public UserAgentClassifier(@Value("${device.user-agent-cache-size:1024}") int cacheSize) {
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> outputTable = new ArrayList<>();
+        gotoTable.add(newState());
+        outputTable.add(new ArrayList<>());
+
+        // 1. Trie of all tokens
+        for (int r = 0; r < RULES.size(); r++) {
+            int state = 0;
+            for (char c : RULES.get(r).token().toCharArray()) {
+                int next = gotoTable.get(state)[c];
+                if (next < 0) {
+                    next = gotoTable.size();
+                    gotoTable.add(newState());
+                    outputTable.add(new ArrayList<>());
+                    gotoTable.get(state)[c] = next;
+                }
+                state = next;
+            }
+            outputTable.get(state).add(r);
+        }
+
+        // 2. Failure links (BFS), folded into a complete transition table
+        int[] failure = new int[gotoTable.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = gotoTable.get(0)[c];
+            if (next < 0) {
+                gotoTable.get(0)[c] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            outputTable.get(state).addAll(outputTable.get(failure[state]));
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = gotoTable.get(state)[c];
+                if (next < 0) {
+                    gotoTable.get(state)[c] = gotoTable.get(failure[state])[c];
+                } else {
+                    failure[next] = gotoTable.get(failure[state])[c];
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.transitions = gotoTable.toArray(new int[0][]);
+        this.outputs = new int[outputTable.size()][];
+        for (int i = 0; i < outputTable.size(); i++) {
+            this.outputs[i] = outputTable.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserAgentInfo> eldest) {
+                return size() > cacheSize;
+            }
+        });
+
+        log.info("🧭 User-agent classifier compiled: {} rules, {} states, cache size {}",
+                RULES.size(), transitions.length, cacheSize);
+    }
+
+    // ========== PUBLIC API ==========
+
+    public UserAgentInfo classify(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UNKNOWN;
+        }
+
+        UserAgentInfo cached = cache.get(userAgent);
+        if (cached != null) {
+            return cached;
+        }
+
+        UserAgentInfo info = match(userAgent);
+        cache.put(userAgent, info);
+        return info;
+    }
+
+    // ========== MATCHING ==========
+
+    private UserAgentInfo match(String userAgent) {
+        int length = Math.min(userAgent.length(), MAX_CLASSIFIED_LENGTH);
+
+        Rule browser = null;
+        int browserEnd = -1;
+        Rule os = null;
+        Rule device = null;
+        int versionHintEnd = -1;
+
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(userAgent.charAt(i));
+            state = c < ALPHABET ? transitions[state][c] : 0;
+
+            for (int r : outputs[state]) {
+                Rule rule = RULES.get(r);
+                switch (rule.kind()) {
+                    case BROWSER -> {
+                        if (browser == null || rule.priority() > browser.priority()) {
+                            browser = rule;
+                            browserEnd = i + 1;
+                        }
+                    }
+                    case OS -> {
+                        if (os == null || rule.priority() > os.priority()) {
+                            os = rule;
+                        }
+                    }
+                    case DEVICE -> {
+                        if (device == null || rule.priority() > device.priority()) {
+                            device = rule;
+                        }
+                    }
+                    case VERSION_HINT -> versionHintEnd = i + 1;
+                }
+            }
+        }
+
+        String version = null;
+        if (browser != null) {
+            // Safari (and iOS Chrome-less webviews) put the real version in "Version/x.y"
+            int versionStart = browser.captureVersion() ? browserEnd : versionHintEnd;
+            version = versionStart > 0 ? readVersion(userAgent, versionStart, length) : null;
+        }
+
+        return new UserAgentInfo(
+                browser != null ? browser.value() : UNKNOWN.browser(),
+                version,
+                os != null ? os.value() : UNKNOWN.os(),
+                device != null ? DeviceClass.valueOf(device.value()) : DeviceClass.DESKTOP
+        );
+    }
+
+    /**
+     * Major.minor only - patch/build numbers change weekly and would just fragment analytics.
+     */
+    private static String readVersion(String userAgent, int start, int end) {
+        int i = start;
+        int dots = 0;
+        while (i < end) {
+            char c = userAgent.charAt(i);
+            if (c == '.' && dots == 0 && i > start) {
+                dots++;
+            } else if (c < '0' || c > '9') {
+                break;
+            }
+            i++;
+        }
+        if (i > start && userAgent.charAt(i - 1) == '.') {
+            i--;
+        }
+        return i > start ? userAgent.substring(start, i) : null;
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+}
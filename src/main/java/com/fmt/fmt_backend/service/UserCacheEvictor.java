@@ -0,0 +1,90 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Explicit second-level cache eviction for user writes that bypass the Hibernate session
+ * (native UPDATE ... RETURNING, bulk JPQL updates, JdbcTemplate flushes).
+ *
+ * Evicts immediately and again after commit: a concurrent reader that re-caches the old
+ * row between the update and the commit would otherwise keep it until the TTL runs out.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * For a credential write that returned the affected id: drops that user's entity entry and their
+     * email -> id cross-reference. Other users' entries are untouched.
+     */
+    public void evictUser(UUID userId, String email) {
+        runNowAndAfterCommit(() -> {
+            cache().evictEntityData(User.class, userId);
+            evictNaturalId(email);
+        });
+    }
+
+    /**
+     * For updates that don't touch credential columns (last login time / IP).
+     */
+    public void evictUsers(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        runNowAndAfterCommit(() -> {
+            Cache cache = cache();
+            userIds.forEach(id -> cache.evictEntityData(User.class, id));
+        });
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private void evictNaturalId(String email) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class);
+        NaturalIdDataAccess access = persister.getNaturalIdMapping().getCacheAccess();
+        if (access == null) {
+            return;
+        }
+        // The key is only built from the value and the persister; the session is never touched
+        try (Session session = sessionFactory.openSession()) {
+            access.evict(access.generateCacheKey(email, persister, (SharedSessionContractImplementor) session));
+        }
+    }
+
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+}
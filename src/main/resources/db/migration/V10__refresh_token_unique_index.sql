@@ -0,0 +1,13 @@
+-- ============================================
+-- V10: RESTORE A UNIQUE INDEX ON refresh_tokens.token
+-- V3 had to drop the token unique constraint: on a partitioned table every unique index must
+-- contain the partition key. (token, created_at) is the closest enforceable form: a duplicate
+-- could only slip in with a different created_at, and tokens are random 122-bit UUIDs.
+-- Token leads the index, so it also serves RefreshTokenRepository.findByToken and replaces
+-- the plain index from V3.
+-- Partitioned parents can't be indexed CONCURRENTLY; the table only holds live tokens.
+-- ============================================
+
+CREATE UNIQUE INDEX uk_refresh_tokens_token_created ON refresh_tokens (token, created_at);
+
+DROP INDEX idx_refresh_tokens_token;
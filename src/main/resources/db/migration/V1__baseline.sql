@@ -0,0 +1,117 @@
+-- ============================================
+-- V1: BASELINE SCHEMA
+-- Matches what Hibernate (ddl-auto: update) created before migrations were introduced.
+-- Existing databases are baselined at this version and skip it (spring.flyway.baseline-on-migrate).
+-- ============================================
+
+CREATE TABLE users (
+    id                      UUID         NOT NULL,
+    created_at              TIMESTAMP(6),
+    updated_at              TIMESTAMP(6),
+    account_locked_until    TIMESTAMP(6),
+    city                    VARCHAR(255),
+    country                 VARCHAR(255),
+    email                   VARCHAR(255) NOT NULL UNIQUE,
+    email_verified_at       TIMESTAMP(6),
+    failed_login_attempts   INTEGER,
+    first_name              VARCHAR(255) NOT NULL,
+    gender                  VARCHAR(255) CHECK (gender IN ('MALE', 'FEMALE', 'OTHER', 'PREFER_NOT_TO_SAY')),
+    is_active               BOOLEAN,
+    is_email_verified       BOOLEAN,
+    is_mobile_verified      BOOLEAN,
+    last_login_at           TIMESTAMP(6),
+    last_login_ip           VARCHAR(255),
+    last_name               VARCHAR(255) NOT NULL,
+    last_password_change_at TIMESTAMP(6),
+    mobile_verified_at      TIMESTAMP(6),
+    password                VARCHAR(255) NOT NULL,
+    phone_number            VARCHAR(255),
+    postal_code             VARCHAR(255),
+    state                   VARCHAR(255),
+    user_role               VARCHAR(255) CHECK (user_role IN ('STUDENT', 'MENTOR', 'ADMIN')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE devices (
+    id                         UUID         NOT NULL,
+    created_at                 TIMESTAMP(6) NOT NULL,
+    device_fingerprint         VARCHAR(255) NOT NULL,
+    device_name                VARCHAR(255),
+    first_seen_at              TIMESTAMP(6),
+    ip_address                 VARCHAR(255),
+    is_active                  BOOLEAN      NOT NULL,
+    is_streaming               BOOLEAN      NOT NULL,
+    last_active_at             TIMESTAMP(6),
+    streaming_lease_expires_at TIMESTAMP(6),
+    user_agent                 VARCHAR(255),
+    user_id                    UUID         NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE email_verification_tokens (
+    id         UUID         NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    expires_at TIMESTAMP(6) NOT NULL,
+    token      VARCHAR(255) NOT NULL UNIQUE,
+    user_id    UUID         NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE enquiries (
+    id               UUID          NOT NULL,
+    area_of_interest VARCHAR(255),
+    city             VARCHAR(255),
+    created_at       TIMESTAMP(6),
+    experience_level VARCHAR(255) CHECK (experience_level IN ('BEGINNER', 'INTERMEDIATE', 'ADVANCED')),
+    ip_address       VARCHAR(255),
+    message          VARCHAR(1000),
+    mobile           VARCHAR(255)  NOT NULL,
+    name             VARCHAR(255)  NOT NULL,
+    status           VARCHAR(255) CHECK (status IN ('NEW', 'CONTACTED', 'CLOSED')),
+    user_agent       VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE otps (
+    id           UUID         NOT NULL,
+    attempts     INTEGER      NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    expires_at   TIMESTAMP(6) NOT NULL,
+    identifier   VARCHAR(255) NOT NULL,
+    ip_address   VARCHAR(255),
+    locked_until TIMESTAMP(6),
+    otp_code     VARCHAR(255) NOT NULL,
+    session_id   VARCHAR(255),
+    type         VARCHAR(255) CHECK (type IN ('EMAIL_VERIFICATION', 'MOBILE_VERIFICATION', 'LOGIN')),
+    user_id      UUID,
+    verified     BOOLEAN      NOT NULL,
+    verified_at  TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE refresh_tokens (
+    id             UUID         NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    expires_at     TIMESTAMP(6) NOT NULL,
+    revoked        BOOLEAN      NOT NULL,
+    revoked_at     TIMESTAMP(6),
+    revoked_reason VARCHAR(255),
+    token          VARCHAR(255) NOT NULL UNIQUE,
+    device_id      UUID,
+    user_id        UUID         NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Constraint names are the ones Hibernate generated, so baselined and fresh databases look the same
+ALTER TABLE devices
+    ADD CONSTRAINT fkrfbri1ymrwywdydc4dgywe1bt FOREIGN KEY (user_id) REFERENCES users;
+
+ALTER TABLE email_verification_tokens
+    ADD CONSTRAINT fki1c4mmamlb8keqt74k4lrtwhc FOREIGN KEY (user_id) REFERENCES users;
+
+ALTER TABLE refresh_tokens
+    ADD CONSTRAINT fka3bxdj3aq8y05gpidwqahrx97 FOREIGN KEY (device_id) REFERENCES devices;
+
+ALTER TABLE refresh_tokens
+    ADD CONSTRAINT fk1lih5y2npsf8u5o3vhdb9y0os FOREIGN KEY (user_id) REFERENCES users;
@@ -0,0 +1,70 @@
+-- ============================================
+-- V2: INDEXES FOR HOT QUERIES
+-- One index per repository access path. Built CONCURRENTLY so existing tables stay writable
+-- (Flyway runs a script made only of concurrent builds outside a transaction).
+-- ============================================
+
+-- ---------- otps ----------
+-- OtpRepository.findTopByIdentifierAndTypeAndVerified{False,True}OrderByCreatedAtDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_otps_identifier_type_verified_created
+    ON otps (identifier, type, verified, created_at DESC);
+
+-- OtpRepository.countByIdentifierAndCreatedAtAfter (resend cooldown)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_otps_identifier_created
+    ON otps (identifier, created_at);
+
+-- OtpRepository.deleteExpiredOtps
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_otps_expires_at
+    ON otps (expires_at);
+
+-- ---------- devices ----------
+-- DeviceRepository.findByUserAndDeviceFingerprint (every login / register)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_user_fingerprint
+    ON devices (user_id, device_fingerprint);
+
+-- DeviceRepository.findActiveDeviceViews / findByUserAndIsActiveTrue (session registry hydration)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_user_active
+    ON devices (user_id) WHERE is_active;
+
+-- DeviceRepository.acquireStreamingLease (per-user count of live streams)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_user_streaming
+    ON devices (user_id, streaming_lease_expires_at) WHERE is_streaming;
+
+-- DeviceRepository.releaseExpiredStreamingLeases (reaper)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_streaming_lease
+    ON devices (streaming_lease_expires_at) WHERE is_streaming;
+
+-- DeviceRepository.deactivateInactiveBatch (nightly sweep)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_devices_active_last_active
+    ON devices (last_active_at, id) WHERE is_active;
+
+-- ---------- refresh_tokens ----------
+-- RefreshTokenRepository.revokeAllDeviceTokens / revokeTokensForDevices
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_device
+    ON refresh_tokens (device_id);
+
+-- RefreshTokenRepository.revokeAllUserTokens / findByUserAndRevokedFalse / countByUserAndRevokedFalse
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_user
+    ON refresh_tokens (user_id);
+
+-- RefreshTokenRepository.deleteExpiredAndRevoked
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_expires_at
+    ON refresh_tokens (expires_at);
+
+-- ---------- enquiries ----------
+-- EnquiryRepository.findEnquiriesBetween / countTodayEnquiries
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_enquiries_created_at
+    ON enquiries (created_at);
+
+-- EnquiryRepository.findByMobile
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_enquiries_mobile
+    ON enquiries (mobile);
+
+-- EnquiryRepository.findByStatus
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_enquiries_status_created
+    ON enquiries (status, created_at);
+
+-- ---------- email_verification_tokens ----------
+-- EmailVerificationTokenRepository.deleteExpiredTokens
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_email_tokens_expires_at
+    ON email_verification_tokens (expires_at);
@@ -0,0 +1,104 @@
+-- ============================================
+-- V3: RANGE-PARTITION otps (daily) AND refresh_tokens (weekly) BY created_at
+-- Retention becomes DROP TABLE on whole partitions (PartitionMaintenanceService) instead of
+-- row-level DELETEs that leave dead tuples for autovacuum.
+--
+-- Partitioned tables need the partition key in every unique constraint, so:
+--   * primary keys become (id, created_at) - ids are still unique (UUIDv7)
+--   * refresh_tokens.token keeps a plain index; tokens are 128-bit random values
+-- Only live rows are carried over: OTPs from the last day, refresh tokens that haven't expired.
+-- ============================================
+
+-- ---------- new partitioned tables ----------
+CREATE TABLE otps_partitioned (
+    id           UUID         NOT NULL,
+    attempts     INTEGER      NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    expires_at   TIMESTAMP(6) NOT NULL,
+    identifier   VARCHAR(255) NOT NULL,
+    ip_address   VARCHAR(255),
+    locked_until TIMESTAMP(6),
+    otp_code     VARCHAR(255) NOT NULL,
+    session_id   VARCHAR(255),
+    type         VARCHAR(255) CHECK (type IN ('EMAIL_VERIFICATION', 'MOBILE_VERIFICATION', 'LOGIN')),
+    user_id      UUID,
+    verified     BOOLEAN      NOT NULL,
+    verified_at  TIMESTAMP(6),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE refresh_tokens_partitioned (
+    id             UUID         NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    expires_at     TIMESTAMP(6) NOT NULL,
+    revoked        BOOLEAN      NOT NULL,
+    revoked_at     TIMESTAMP(6),
+    revoked_reason VARCHAR(255),
+    token          VARCHAR(255) NOT NULL,
+    device_id      UUID,
+    user_id        UUID         NOT NULL,
+    PRIMARY KEY (id, created_at),
+    CONSTRAINT fka3bxdj3aq8y05gpidwqahrx97 FOREIGN KEY (device_id) REFERENCES devices,
+    CONSTRAINT fk1lih5y2npsf8u5o3vhdb9y0os FOREIGN KEY (user_id) REFERENCES users
+) PARTITION BY RANGE (created_at);
+
+-- Safety nets if maintenance falls behind; normally stay empty
+CREATE TABLE otps_default PARTITION OF otps_partitioned DEFAULT;
+CREATE TABLE refresh_tokens_default PARTITION OF refresh_tokens_partitioned DEFAULT;
+
+-- ---------- initial partitions: cover the rows being copied plus the near future ----------
+DO $$
+DECLARE
+    day  DATE;
+    week DATE;
+BEGIN
+    FOR day IN
+        SELECT generate_series(current_date - 1, current_date + 7, interval '1 day')::date
+    LOOP
+        EXECUTE format('CREATE TABLE otps_p%s PARTITION OF otps_partitioned FOR VALUES FROM (%L) TO (%L)',
+                       to_char(day, 'YYYYMMDD'), day, day + 1);
+    END LOOP;
+
+    FOR week IN
+        SELECT generate_series(
+                   LEAST(date_trunc('week', COALESCE((SELECT MIN(created_at) FROM refresh_tokens
+                                                     WHERE expires_at > now()), now())),
+                         date_trunc('week', now())),
+                   date_trunc('week', now()) + interval '4 weeks',
+                   interval '1 week')::date
+    LOOP
+        EXECUTE format('CREATE TABLE refresh_tokens_p%s PARTITION OF refresh_tokens_partitioned FOR VALUES FROM (%L) TO (%L)',
+                       to_char(week, 'YYYYMMDD'), week, week + 7);
+    END LOOP;
+END $$;
+
+-- ---------- carry over live rows ----------
+INSERT INTO otps_partitioned
+SELECT id, attempts, created_at, expires_at, identifier, ip_address, locked_until, otp_code,
+       session_id, type, user_id, verified, verified_at
+FROM otps
+WHERE created_at >= current_date - 1;
+
+INSERT INTO refresh_tokens_partitioned
+SELECT id, created_at, expires_at, revoked, revoked_at, revoked_reason, token, device_id, user_id
+FROM refresh_tokens
+WHERE expires_at > now();
+
+-- ---------- swap ----------
+DROP TABLE otps;
+DROP TABLE refresh_tokens;
+
+ALTER TABLE otps_partitioned RENAME TO otps;
+ALTER TABLE otps RENAME CONSTRAINT otps_partitioned_pkey TO otps_pkey;
+
+ALTER TABLE refresh_tokens_partitioned RENAME TO refresh_tokens;
+ALTER TABLE refresh_tokens RENAME CONSTRAINT refresh_tokens_partitioned_pkey TO refresh_tokens_pkey;
+
+-- ---------- indexes (created on the parent, cascaded to every partition) ----------
+-- Expiry indexes from V2 are gone: expired rows now leave with their partition.
+CREATE INDEX idx_otps_identifier_type_verified_created ON otps (identifier, type, verified, created_at DESC);
+CREATE INDEX idx_otps_identifier_created ON otps (identifier, created_at);
+
+CREATE INDEX idx_refresh_tokens_token ON refresh_tokens (token);
+CREATE INDEX idx_refresh_tokens_device ON refresh_tokens (device_id);
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
@@ -0,0 +1,6 @@
+-- Optimistic locking: Hibernate checks and bumps these on every entity UPDATE of users / devices.
+-- Bulk statements that change state bump them too, so a stale entity save fails instead of
+-- silently overwriting (see UserRepository / DeviceRepository). Constant defaults are metadata-only.
+
+ALTER TABLE users   ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE devices ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- ============================================
+-- V5: KEYSET INDEXES FOR THE ADMIN ENQUIRY LISTING / EXPORT
+-- Pages are ordered by (created_at, id) newest first; id breaks ties between enquiries created in
+-- the same microsecond. These replace the V2 created_at / (status, created_at) indexes, which the
+-- date-range count still uses as a prefix. Concurrent only, so the script runs outside a transaction.
+-- ============================================
+
+-- EnquiryRepository.findPageBefore / countTodayEnquiries / export
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_enquiries_created_id
+    ON enquiries (created_at, id);
+
+-- EnquiryRepository.findPageByStatusBefore
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_enquiries_status_created_id
+    ON enquiries (status, created_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_enquiries_created_at;
+DROP INDEX CONCURRENTLY IF EXISTS idx_enquiries_status_created;
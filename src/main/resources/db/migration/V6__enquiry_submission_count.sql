@@ -0,0 +1,5 @@
+-- Repeat submissions from the same mobile inside the dedup window (EnquiryDeduplicator) bump
+-- these instead of inserting a new row. Constant defaults are metadata-only, no table rewrite.
+
+ALTER TABLE enquiries ADD COLUMN submission_count INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE enquiries ADD COLUMN last_submitted_at TIMESTAMP(6);
@@ -0,0 +1,11 @@
+-- Per-day enquiry counters maintained by EnquiryStatsService, so dashboards never COUNT(*) enquiries.
+-- One row per (day, dimension, value): dimension is total / status / city / experience_level.
+-- Rebuilt from enquiries on startup and topped up with additive upserts in between.
+
+CREATE TABLE enquiry_daily_stats (
+    day       DATE         NOT NULL,
+    dimension VARCHAR(32)  NOT NULL,
+    value     VARCHAR(255) NOT NULL,
+    count     BIGINT       NOT NULL,
+    PRIMARY KEY (day, dimension, value)
+);
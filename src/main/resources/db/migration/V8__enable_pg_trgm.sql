@@ -0,0 +1,5 @@
+-- Trigram matching for the admin search (AdminSearchService). Kept apart from the V9 index builds:
+-- those are concurrent and must run outside a transaction, this statement doesn't have to.
+-- On managed Postgres the migration user needs permission to create extensions.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
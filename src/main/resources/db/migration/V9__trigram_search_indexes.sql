@@ -0,0 +1,16 @@
+-- ============================================
+-- V9: TRIGRAM INDEXES FOR THE ADMIN SEARCH
+-- One GIN index per table over the concatenated searchable columns. Queries must repeat the
+-- expression exactly (EnquiryRepository / UserRepository.SEARCH_DOCUMENT) for the planner to
+-- use it for both ILIKE '%q%' and the fuzzy q <% document match. Concurrent only, so the script
+-- runs outside a transaction.
+-- ============================================
+
+-- EnquiryRepository.search
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_enquiries_search_trgm
+    ON enquiries USING gin ((name || ' ' || COALESCE(city, '') || ' ' || COALESCE(area_of_interest, '') || ' ' ||
+                             COALESCE(message, '')) gin_trgm_ops);
+
+-- UserRepository.search
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_search_trgm
+    ON users USING gin ((first_name || ' ' || last_name || ' ' || email || ' ' || COALESCE(phone_number, '')) gin_trgm_ops);
@@ -0,0 +1,86 @@
+package com.fmt.fmt_backend.config;
+
+import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.exception.GlobalExceptionHandler;
+import com.fmt.fmt_backend.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(10);
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        properties.setRetryAfterSeconds(7);
+        encoder = new BoundedPasswordEncoder(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void aSaturatedPoolFailsFastWithServiceOverloaded() {
+        // Park the only worker and fill the one queue slot, so the next hash has nowhere to go
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(encoder, "executor");
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        assertThatThrownBy(() -> encoder.encode("password"))
+                .isInstanceOfSatisfying(ServiceOverloadedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(7));
+        assertThat(meterRegistry.get("auth.password.hash.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void overloadIsMappedTo503WithRetryAfter() {
+        ResponseEntity<ApiResponse<String>> response = new GlobalExceptionHandler()
+                .handleServiceOverloadedException(new ServiceOverloadedException("Server is busy.", 7));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("7");
+        assertThat(response.getBody().isSuccess()).isFalse();
+        assertThat(response.getBody().getMessage()).isEqualTo("Server is busy.");
+    }
+
+    @Test
+    void upgradeEncodingDelegatesToBCryptAtTheConfiguredStrength() {
+        String weaker = new BCryptPasswordEncoder(4).encode("password");
+        String current = new BCryptPasswordEncoder(10).encode("password");
+
+        assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+        assertThat(encoder.upgradeEncoding(current)).isFalse();
+        assertThat(encoder.matches("password", current)).isTrue();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fmt.fmt_backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryMetricsListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryMetricsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        QueryMetricsProperties properties = new QueryMetricsProperties();
+        properties.setRepeatedQueryThreshold(3);
+        listener = new QueryMetricsListener(meterRegistry, properties);
+    }
+
+    @Test
+    void timesStatementsPerRepositoryMethod() {
+        String previous = QueryOrigin.enter("OtpRepository.findByIdentifier");
+        try {
+            execute("select * from otps where identifier = ?", 12);
+        } finally {
+            QueryOrigin.restore(previous);
+        }
+        execute("update devices set last_active_at = ?", 3);
+
+        assertThat(meterRegistry.get("db.query")
+                .tags("repository", "OtpRepository.findByIdentifier", "type", "select", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("db.query")
+                .tags("repository", QueryOrigin.NONE, "type", "update")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void flagsStatementsRepeatedWithinOneRequest() {
+        listener.beginRequest();
+        String previous = QueryOrigin.enter("DeviceRepository.findById");
+        try {
+            for (int i = 0; i < 3; i++) {
+                execute("select * from devices where id = ?", 1);
+            }
+            execute("select * from users where id = ?", 1);
+        } finally {
+            QueryOrigin.restore(previous);
+        }
+        listener.endRequest("GET /api/devices");
+
+        assertThat(meterRegistry.get("db.query.repeated")
+                .tag("repository", "DeviceRepository.findById")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("db.query.per_request").summary().totalAmount()).isEqualTo(4);
+    }
+
+    private void execute(String sql, long elapsedMs) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(elapsedMs);
+        execInfo.setSuccess(true);
+        listener.afterQuery(execInfo, List.of(new QueryInfo(sql)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.fmt.fmt_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fmt.fmt_backend.service.DeviceFingerprintService;
+import com.fmt.fmt_backend.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Limit twoPerMinute = new RateLimitProperties.Limit();
+        twoPerMinute.setCapacity(2);
+        twoPerMinute.setRefillTokens(2);
+        twoPerMinute.setRefillPeriod(Duration.ofMinutes(1));
+
+        RateLimitProperties.Policy login = new RateLimitProperties.Policy();
+        login.setName("login");
+        login.setPaths(List.of("/api/auth/login"));
+        login.setMethods(List.of("post"));
+        login.setPerIp(twoPerMinute);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(List.of(login));
+
+        DeviceFingerprintService fingerprintService = mock(DeviceFingerprintService.class);
+        when(fingerprintService.clientIp(any())).thenReturn("203.0.113.7");
+
+        filter = new RateLimitFilter(properties, new RateLimiter(100, System::nanoTime), fingerprintService,
+                mock(JwtService.class), new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rejectsWith429AndRetryAfterOnceTheBurstIsSpent() throws Exception {
+        assertThat(send("POST", "/api/auth/login").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/api/auth/login").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse limited = send("POST", "/api/auth/login");
+
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(limited.getContentAsString()).contains("\"success\":false");
+    }
+
+    @Test
+    void leavesUnmatchedRoutesAndMethodsAlone() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(send("GET", "/api/auth/login").getStatus()).isEqualTo(200);
+            assertThat(send("POST", "/api/enquiry/submit").getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse send(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
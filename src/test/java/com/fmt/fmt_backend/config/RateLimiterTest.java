@@ -0,0 +1,69 @@
+package com.fmt.fmt_backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * ONE_SECOND);
+    private final RateLimiter rateLimiter = new RateLimiter(100, clock::get);
+
+    @Test
+    void allowsABurstThenOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("ip|1.2.3.4", ONE_SECOND, 3)).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("ip|1.2.3.4", ONE_SECOND, 3)).isEqualTo(ONE_SECOND);
+        assertThat(rateLimiter.tryAcquire("ip|5.6.7.8", ONE_SECOND, 3)).isZero();
+
+        clock.addAndGet(ONE_SECOND / 2);
+        assertThat(rateLimiter.tryAcquire("ip|1.2.3.4", ONE_SECOND, 3)).isEqualTo(ONE_SECOND / 2);
+
+        clock.addAndGet(ONE_SECOND / 2);
+        assertThat(rateLimiter.tryAcquire("ip|1.2.3.4", ONE_SECOND, 3)).isZero();
+    }
+
+    @Test
+    void evictsOnlyBucketsThatHaveFullyRefilled() {
+        rateLimiter.tryAcquire("idle", ONE_SECOND, 3);
+        clock.addAndGet(ONE_SECOND);
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("busy", ONE_SECOND, 3);
+        }
+
+        rateLimiter.evictIdle();
+
+        assertThat(rateLimiter.size()).isEqualTo(1);
+        assertThat(rateLimiter.tryAcquire("busy", ONE_SECOND, 3)).isPositive();
+    }
+
+    @Test
+    void aSaturatedMapRefusesNewKeysAndSweepsAtMostOncePerSecond() {
+        RateLimiter small = new RateLimiter(3, clock::get);
+        for (String key : new String[]{"a", "b", "c"}) {
+            small.tryAcquire(key, ONE_SECOND, 3);
+        }
+
+        // Nothing idle yet: the first new key pays for the sweep, neither gets in, the map stays bounded
+        assertThat(small.tryAcquire("d", ONE_SECOND, 3)).isEqualTo(ONE_SECOND);
+        assertThat(small.tryAcquire("e", ONE_SECOND, 3)).isEqualTo(ONE_SECOND);
+        assertThat(small.size()).isEqualTo(3);
+        assertThat(small.tryAcquire("a", ONE_SECOND, 3)).isZero();
+
+        // Half a second on: no sweep is due yet, so new keys are still refused without a scan
+        clock.addAndGet(ONE_SECOND / 2);
+        small.tryAcquire("b", ONE_SECOND, 3);
+        assertThat(small.tryAcquire("f", ONE_SECOND, 3)).isEqualTo(ONE_SECOND);
+
+        // A second after the last sweep, c has refilled (a and b were used since) - the next sweep frees it
+        clock.addAndGet(ONE_SECOND / 2);
+        assertThat(small.tryAcquire("f", ONE_SECOND, 3)).isZero();
+        assertThat(small.size()).isEqualTo(3);
+    }
+}
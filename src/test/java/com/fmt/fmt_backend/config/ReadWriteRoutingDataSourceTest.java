@@ -0,0 +1,124 @@
+package com.fmt.fmt_backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Routing decisions against stand-in pools - no database needed.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        routing = new ReadWriteRoutingDataSource(primary, replica);
+    }
+
+    @AfterEach
+    void clearTransactionState() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaReads.restore(null);
+    }
+
+    @Test
+    void readOnlyWorkUsesReplicaOnceItIsInSync() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReads.enter();
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        routing.markReplicaAvailable();
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void readWriteWorkAlwaysUsesPrimary() throws SQLException {
+        routing.markReplicaAvailable();
+        ReplicaReads.enter();
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readOnlyWorkWithoutReplicaReadStaysOnPrimary() throws SQLException {
+        routing.markReplicaAvailable();
+
+        // e.g. Spring Data's implicit readOnly on findLoginCredentialByEmail
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void lagGuardSendsReadsBackToPrimary() throws SQLException {
+        routing.markReplicaAvailable();
+        routing.markReplicaUnavailable("lag 30.0s > 10s");
+        ReplicaReads.enter();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void failedReplicaConnectionFallsBackToPrimary() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        routing.markReplicaAvailable();
+        ReplicaReads.enter();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.isReplicaAvailable()).isFalse();
+    }
+
+    @Test
+    void lazyProxyRoutesReadOnlyTransactionToReplica() throws SQLException {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        routing.markReplicaAvailable();
+        ReplicaReads.enter();
+        clearInvocations(primary, replica);
+
+        readOnly.executeWithoutResult(status -> runStatement(dataSource));
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+
+        readWrite.executeWithoutResult(status -> runStatement(dataSource));
+        verify(primary).getConnection();
+    }
+
+    private static void runStatement(DataSource dataSource) {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.fmt.fmt_backend.entity.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 20_000;
+
+    @Test
+    void setsVersion7AndTheRfcVariant() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(before); // 48-bit Unix millis
+    }
+
+    @Test
+    void idsFromOneThreadStrictlyIncrease() {
+        UUID previous = UuidV7Generator.next();
+        for (int i = 0; i < 50_000; i++) { // Far more than 4096 per millisecond, so the counter carries
+            UUID id = UuidV7Generator.next();
+            assertThat(Long.compareUnsigned(id.getMostSignificantBits(), previous.getMostSignificantBits()))
+                    .isPositive();
+            previous = id;
+        }
+    }
+
+    @Test
+    void keepsIncreasingWhenTheClockStepsBack() {
+        long now = System.currentTimeMillis();
+        UUID ahead = UuidV7Generator.next(now + 1_000);
+
+        UUID afterStepBack = UuidV7Generator.next(now);
+
+        assertThat(Long.compareUnsigned(afterStepBack.getMostSignificantBits(), ahead.getMostSignificantBits()))
+                .isPositive();
+        assertThat(afterStepBack.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(now + 1_000);
+    }
+
+    @Test
+    void concurrentIdsAreUnique() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<UUID>>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<UUID> ids = new ArrayList<>(IDS_PER_THREAD);
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids.add(UuidV7Generator.next());
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            // Unique in the time + counter half alone - the random tail isn't what keeps them apart
+            Set<Long> prefixes = new HashSet<>();
+            for (Future<List<UUID>> result : results) {
+                for (UUID id : result.get()) {
+                    prefixes.add(id.getMostSignificantBits());
+                }
+            }
+            assertThat(prefixes).hasSize(THREADS * IDS_PER_THREAD);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.fmt.fmt_backend.repository;
+
+import com.fmt.fmt_backend.entity.id.UuidV7Generator;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of the bulk device write paths against a real Postgres: row-at-a-time vs JDBC batches
+ * (with and without reWriteBatchedInserts) for imports, and per-row updates vs the set-based
+ * keyset chunks used by DeviceService.cleanupInactiveDevices for the sweep.
+ *
+ * Excluded from the normal build; run with: mvn test -Dgroups=benchmark -DexcludedGroups=
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@Slf4j
+class BatchWriteBenchmarkTest {
+
+    private static final int DEVICES = 5_000;
+    private static final int BATCH_SIZE = 50;
+    private static final int SWEEP_CHUNK = 1_000;
+
+    private static final String INSERT_DEVICE = "INSERT INTO devices (id, user_id, device_fingerprint, device_name, " +
+            "ip_address, user_agent, last_active_at, first_seen_at, is_active, is_streaming, created_at) " +
+            "VALUES (?, ?, ?, 'Chrome on Windows', '10.0.0.1', 'Mozilla/5.0', ?, ?, true, false, ?)";
+
+    // Same statement as DeviceRepository.deactivateInactiveBatch
+    private static final String SWEEP_CHUNK_SQL = "UPDATE devices d SET is_active = false, is_streaming = false, " +
+            "streaming_lease_expires_at = NULL FROM (SELECT id FROM devices " +
+            "WHERE is_active = true AND last_active_at < ? AND id > ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) stale " +
+            "WHERE d.id = stale.id RETURNING d.id";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static UUID userId;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        userId = UuidV7Generator.next();
+        try (Connection connection = connect(false);
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO users (id, email, first_name, last_name, password) VALUES (?, ?, 'Bench', 'User', 'x')")) {
+            insert.setObject(1, userId);
+            insert.setString(2, "bench@example.com");
+            insert.executeUpdate();
+        }
+    }
+
+    @BeforeEach
+    void clearDevices() throws SQLException {
+        try (Connection connection = connect(false); Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM devices");
+        }
+    }
+
+    @Test
+    void deviceImport() throws SQLException {
+        double rowAtATime = insertDevices(false, 1);
+        clearDevices();
+        double batched = insertDevices(false, BATCH_SIZE);
+        clearDevices();
+        double rewritten = insertDevices(true, BATCH_SIZE);
+
+        report("device import", "row-at-a-time", rowAtATime, "JDBC batch", batched,
+                "batch + reWriteBatchedInserts", rewritten);
+        assertThat(countActiveDevices()).isEqualTo(DEVICES);
+    }
+
+    @Test
+    void inactiveDeviceSweep() throws SQLException {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+
+        insertDevices(true, BATCH_SIZE);
+        double perRow = sweepRowByRow(cutoff);
+        assertThat(countActiveDevices()).isZero();
+
+        clearDevices();
+        insertDevices(true, BATCH_SIZE);
+        double setBased = sweepInChunks(cutoff);
+        assertThat(countActiveDevices()).isZero();
+
+        report("inactive device sweep", "select + update per row", perRow, "set-based chunks", setBased);
+    }
+
+    // ========== SCENARIOS ==========
+
+    /**
+     * Returns rows per second. batchSize 1 = one executeUpdate per row.
+     */
+    private double insertDevices(boolean rewriteBatchedInserts, int batchSize) throws SQLException {
+        LocalDateTime stale = LocalDateTime.now().minusDays(60);
+        try (Connection connection = connect(rewriteBatchedInserts)) {
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_DEVICE)) {
+                for (int i = 0; i < DEVICES; i++) {
+                    insert.setObject(1, UuidV7Generator.next());
+                    insert.setObject(2, userId);
+                    insert.setString(3, "fp-" + i);
+                    insert.setTimestamp(4, Timestamp.valueOf(stale));
+                    insert.setTimestamp(5, Timestamp.valueOf(stale));
+                    insert.setTimestamp(6, Timestamp.valueOf(stale));
+                    if (batchSize == 1) {
+                        insert.executeUpdate();
+                    } else {
+                        insert.addBatch();
+                        if ((i + 1) % batchSize == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                }
+                if (batchSize > 1) {
+                    insert.executeBatch();
+                }
+            }
+            connection.commit();
+            return rowsPerSecond(DEVICES, start);
+        }
+    }
+
+    /**
+     * The old entity-style sweep: load the stale ids, then one UPDATE per device.
+     */
+    private double sweepRowByRow(LocalDateTime cutoff) throws SQLException {
+        try (Connection connection = connect(true)) {
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+
+            List<UUID> ids = new ArrayList<>();
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT id FROM devices WHERE is_active = true AND last_active_at < ?")) {
+                select.setTimestamp(1, Timestamp.valueOf(cutoff));
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        ids.add(rows.getObject(1, UUID.class));
+                    }
+                }
+            }
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE devices SET is_active = false, is_streaming = false WHERE id = ?")) {
+                for (UUID id : ids) {
+                    update.setObject(1, id);
+                    update.executeUpdate();
+                }
+            }
+            connection.commit();
+            return rowsPerSecond(ids.size(), start);
+        }
+    }
+
+    private double sweepInChunks(LocalDateTime cutoff) throws SQLException {
+        try (Connection connection = connect(true)) {
+            long start = System.nanoTime();
+            int swept = 0;
+            String afterId = new UUID(0, 0).toString();
+
+            while (true) {
+                List<String> chunk = new ArrayList<>();
+                try (PreparedStatement update = connection.prepareStatement(SWEEP_CHUNK_SQL)) {
+                    update.setTimestamp(1, Timestamp.valueOf(cutoff));
+                    update.setObject(2, UUID.fromString(afterId));
+                    update.setInt(3, SWEEP_CHUNK);
+                    try (ResultSet rows = update.executeQuery()) {
+                        while (rows.next()) {
+                            chunk.add(rows.getString(1));
+                        }
+                    }
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                swept += chunk.size();
+                afterId = chunk.stream().max(String::compareTo).orElseThrow();
+            }
+            return rowsPerSecond(swept, start);
+        }
+    }
+
+    // ========== HELPERS ==========
+
+    private static Connection connect(boolean rewriteBatchedInserts) throws SQLException {
+        String url = POSTGRES.getJdbcUrl() + (POSTGRES.getJdbcUrl().contains("?") ? "&" : "?")
+                + "reWriteBatchedInserts=" + rewriteBatchedInserts;
+        return DriverManager.getConnection(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private static long countActiveDevices() throws SQLException {
+        try (Connection connection = connect(false); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM devices WHERE is_active = true")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static double rowsPerSecond(int rows, long startNanos) {
+        return rows / ((System.nanoTime() - startNanos) / 1_000_000_000.0);
+    }
+
+    private static void report(String scenario, Object... labelsAndRates) {
+        double baseline = (double) labelsAndRates[1];
+        StringBuilder out = new StringBuilder("📊 " + scenario + " (" + DEVICES + " devices)");
+        for (int i = 0; i < labelsAndRates.length; i += 2) {
+            double rate = (double) labelsAndRates[i + 1];
+            out.append(String.format("%n   %-32s %10.0f rows/s  (x%.1f)", labelsAndRates[i], rate, rate / baseline));
+        }
+        log.info("{}", out);
+    }
+}
@@ -0,0 +1,121 @@
+package com.fmt.fmt_backend.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a real Postgres and checks that every hot repository
+ * query is planned as an index scan on the index created for it (seq scans disabled, so an
+ * empty table doesn't make the planner prefer a scan). Expected names are regexes.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class HotQueryIndexTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of(partitionIndex("otps", "identifier_type_verified_created_at"),
+                        "SELECT * FROM otps WHERE identifier = 'a@b.c' AND type = 'LOGIN' AND verified = false " +
+                                "ORDER BY created_at DESC LIMIT 1"),
+                Arguments.of(partitionIndex("otps", "identifier_created_at"),
+                        "SELECT COUNT(*) FROM otps WHERE identifier = 'a@b.c' AND created_at > now() - interval '1 minute'"),
+                Arguments.of("idx_devices_user_fingerprint",
+                        "SELECT * FROM devices WHERE user_id = gen_random_uuid() AND device_fingerprint = 'fp'"),
+                Arguments.of("idx_devices_user_active",
+                        "SELECT id, device_name FROM devices WHERE user_id = gen_random_uuid() AND is_active = true"),
+                Arguments.of("idx_devices_user_streaming",
+                        "SELECT COUNT(*) FROM devices WHERE user_id = gen_random_uuid() AND is_streaming = true " +
+                                "AND streaming_lease_expires_at > now()"),
+                Arguments.of("idx_devices_streaming_lease",
+                        "UPDATE devices SET is_streaming = false WHERE is_streaming = true " +
+                                "AND streaming_lease_expires_at <= now()"),
+                Arguments.of("idx_devices_active_last_active",
+                        "SELECT id FROM devices WHERE is_active = true AND last_active_at < now() - interval '30 days' " +
+                                "AND id > '00000000-0000-0000-0000-000000000000' ORDER BY id LIMIT 1000"),
+                Arguments.of(partitionIndex("refresh_tokens", "device_id"),
+                        "UPDATE refresh_tokens SET revoked = true WHERE device_id = gen_random_uuid()"),
+                Arguments.of(partitionIndex("refresh_tokens", "user_id"),
+                        "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = gen_random_uuid() AND revoked = false"),
+                Arguments.of(partitionIndex("refresh_tokens", "token"),
+                        "SELECT * FROM refresh_tokens WHERE token = 'abc'"),
+                Arguments.of("users_email_key",
+                        "SELECT * FROM users WHERE email = 'a@b.c'"),
+                Arguments.of("idx_enquiries_created_id",
+                        "SELECT COUNT(*) FROM enquiries WHERE created_at BETWEEN now() - interval '1 day' AND now()"),
+                Arguments.of("idx_enquiries_created_id",
+                        "SELECT * FROM enquiries WHERE (created_at, id) < (now(), gen_random_uuid()) " +
+                                "ORDER BY created_at DESC, id DESC LIMIT 50"),
+                Arguments.of("idx_enquiries_mobile",
+                        "SELECT * FROM enquiries WHERE mobile = '9999999999'"),
+                Arguments.of("idx_enquiries_status_created_id",
+                        "SELECT * FROM enquiries WHERE status = 'NEW' AND (created_at, id) < (now(), gen_random_uuid()) " +
+                                "ORDER BY created_at DESC, id DESC LIMIT 50"),
+                Arguments.of("idx_enquiries_search_trgm",
+                        "SELECT * FROM enquiries WHERE " + EnquiryRepository.SEARCH_DOCUMENT + " ILIKE '%pune%' " +
+                                "OR 'pune' <% " + EnquiryRepository.SEARCH_DOCUMENT + " LIMIT 21"),
+                Arguments.of("idx_users_search_trgm",
+                        "SELECT * FROM users WHERE " + UserRepository.SEARCH_DOCUMENT + " ILIKE '%9876%' " +
+                                "OR '9876' <% " + UserRepository.SEARCH_DOCUMENT + " LIMIT 21")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryUsesItsIndex(String expectedIndex, String sql) throws Exception {
+        String plan = explain(sql);
+
+        assertThat(plan)
+                .as("plan for: %s", sql)
+                .containsPattern("Index (Only )?Scan|Bitmap Index Scan")
+                .containsPattern(expectedIndex);
+    }
+
+    /**
+     * Partitioned tables are scanned through the per-partition copies Postgres names after each partition.
+     */
+    private static String partitionIndex(String table, String columns) {
+        return table + "_(p\\d{8}|default)_" + columns + "_idx";
+    }
+
+    private static String explain(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+             Statement statement = connection.createStatement()) {
+
+            statement.execute("SET enable_seqscan = off");
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
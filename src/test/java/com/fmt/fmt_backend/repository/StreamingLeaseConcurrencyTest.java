@@ -0,0 +1,151 @@
+package com.fmt.fmt_backend.repository;
+
+import com.fmt.fmt_backend.entity.id.UuidV7Generator;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several devices of one user racing for a single streaming slot, each in its own transaction
+ * (as on separate nodes): DeviceRepository.lockStreamingSlots must let exactly one through.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class StreamingLeaseConcurrencyTest {
+
+    private static final int DEVICES = 8;
+    private static final int MAX_STREAMING_SESSIONS = 1;
+
+    // Same statements as DeviceRepository.lockStreamingSlots / acquireStreamingLease
+    private static final String LOCK_SQL = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('device_streaming'), " +
+            "hashtext(CAST(? AS text)))) l";
+    private static final String ACQUIRE_SQL = "UPDATE devices d SET is_streaming = true, streaming_lease_expires_at = ?, " +
+            "version = d.version + 1 WHERE d.id = ? AND d.user_id = ? AND d.is_active = true " +
+            "AND (SELECT COUNT(*) FROM devices o WHERE o.user_id = ? AND o.id <> ? " +
+            "AND o.is_streaming = true AND o.streaming_lease_expires_at > ?) < ?";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static UUID userId;
+    private static final List<UUID> deviceIds = new ArrayList<>();
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        userId = UuidV7Generator.next();
+        LocalDateTime now = LocalDateTime.now();
+        try (Connection connection = connect()) {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO users (id, email, first_name, last_name, password) VALUES (?, ?, 'Lease', 'User', 'x')")) {
+                insert.setObject(1, userId);
+                insert.setString(2, "lease@example.com");
+                insert.executeUpdate();
+            }
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO devices (id, user_id, " +
+                    "device_fingerprint, device_name, last_active_at, first_seen_at, is_active, is_streaming, created_at) " +
+                    "VALUES (?, ?, ?, 'Chrome on Windows', ?, ?, true, false, ?)")) {
+                for (int i = 0; i < DEVICES; i++) {
+                    UUID deviceId = UuidV7Generator.next();
+                    deviceIds.add(deviceId);
+                    insert.setObject(1, deviceId);
+                    insert.setObject(2, userId);
+                    insert.setString(3, "fp-" + i);
+                    insert.setTimestamp(4, Timestamp.valueOf(now));
+                    insert.setTimestamp(5, Timestamp.valueOf(now));
+                    insert.setTimestamp(6, Timestamp.valueOf(now));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    @Test
+    void onlyOneDeviceGetsTheSlot() throws Exception {
+        CyclicBarrier start = new CyclicBarrier(DEVICES);
+        ExecutorService executor = Executors.newFixedThreadPool(DEVICES);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (UUID deviceId : deviceIds) {
+                results.add(executor.submit(() -> acquire(deviceId, start)));
+            }
+
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get();
+            }
+
+            assertThat(granted).isEqualTo(MAX_STREAMING_SESSIONS);
+            assertThat(countStreaming()).isEqualTo(MAX_STREAMING_SESSIONS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int acquire(UUID deviceId, CyclicBarrier start) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            start.await();
+
+            try (PreparedStatement lock = connection.prepareStatement(LOCK_SQL)) {
+                lock.setObject(1, userId);
+                lock.executeQuery().close();
+            }
+
+            int updated;
+            try (PreparedStatement acquire = connection.prepareStatement(ACQUIRE_SQL)) {
+                acquire.setTimestamp(1, Timestamp.valueOf(now.plusSeconds(90)));
+                acquire.setObject(2, deviceId);
+                acquire.setObject(3, userId);
+                acquire.setObject(4, userId);
+                acquire.setObject(5, deviceId);
+                acquire.setTimestamp(6, Timestamp.valueOf(now));
+                acquire.setLong(7, MAX_STREAMING_SESSIONS);
+                updated = acquire.executeUpdate();
+            }
+
+            Thread.sleep(50); // Hold the transaction open so the racers overlap
+            connection.commit();
+            return updated;
+        }
+    }
+
+    private static long countStreaming() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM devices WHERE is_streaming = true")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
@@ -0,0 +1,97 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.dto.EnquiryPageResponse;
+import com.fmt.fmt_backend.dto.EnquiryResponse;
+import com.fmt.fmt_backend.entity.Enquiry;
+import com.fmt.fmt_backend.repository.EnquiryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AdminEnquiryServiceTest {
+
+    private EnquiryRepository enquiryRepository;
+    private EnquiryStatsService enquiryStatsService;
+    private AdminEnquiryService service;
+
+    @BeforeEach
+    void setUp() {
+        enquiryRepository = mock(EnquiryRepository.class);
+        enquiryStatsService = mock(EnquiryStatsService.class);
+        service = new AdminEnquiryService(enquiryRepository, null, null, null, enquiryStatsService);
+        ReflectionTestUtils.setField(service, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(service, "maxPageSize", 200);
+    }
+
+    @Test
+    void nextCursorContinuesAfterTheLastRowOfThePage() {
+        Enquiry newest = enquiry(LocalDateTime.of(2026, 3, 2, 10, 0));
+        Enquiry middle = enquiry(LocalDateTime.of(2026, 3, 2, 9, 0));
+        Enquiry oldest = enquiry(LocalDateTime.of(2026, 3, 1, 9, 0));
+        when(enquiryRepository.findPageBefore(any(), any(), any(), any(), eq(3)))
+                .thenReturn(List.of(newest, middle, oldest));
+
+        ApiResponse<EnquiryPageResponse> first = service.listEnquiries(null, null, null, null, null);
+
+        assertThat(first.getData().getItems()).hasSize(2);
+        assertThat(first.getData().isHasMore()).isTrue();
+
+        service.listEnquiries(null, null, null, first.getData().getNextCursor(), null);
+
+        verify(enquiryRepository).findPageBefore(any(), any(),
+                eq(middle.getCreatedAt()), eq(middle.getId()), eq(3));
+    }
+
+    @Test
+    void rejectsAMalformedCursor() {
+        ApiResponse<EnquiryPageResponse> response = service.listEnquiries(null, null, null, "not-a-cursor", null);
+
+        assertThat(response.isSuccess()).isFalse();
+        verifyNoInteractions(enquiryRepository);
+    }
+
+    @Test
+    void onlyTheStatusUpdateThatLandsMovesTheStats() {
+        Enquiry enquiry = enquiry(LocalDateTime.of(2026, 3, 2, 10, 0));
+        when(enquiryRepository.findById(enquiry.getId())).thenReturn(Optional.of(enquiry));
+        when(enquiryRepository.updateStatusIfUnchanged(enquiry.getId(), Enquiry.EnquiryStatus.NEW,
+                Enquiry.EnquiryStatus.CONTACTED)).thenReturn(0);
+
+        ApiResponse<EnquiryResponse> response = service.updateStatus(enquiry.getId(), Enquiry.EnquiryStatus.CONTACTED);
+
+        assertThat(response.isSuccess()).isFalse();
+        verifyNoInteractions(enquiryStatsService);
+    }
+
+    @Test
+    void quotesCsvValuesAndNeutralisesFormulas() {
+        assertThat(AdminEnquiryService.csv("Pune")).isEqualTo("Pune");
+        assertThat(AdminEnquiryService.csv("Hi, \"team\"")).isEqualTo("\"Hi, \"\"team\"\"\"");
+        assertThat(AdminEnquiryService.csv("=HYPERLINK(\"x\")")).isEqualTo("\"'=HYPERLINK(\"\"x\"\")\"");
+        assertThat(AdminEnquiryService.csv(null)).isEmpty();
+    }
+
+    private static Enquiry enquiry(LocalDateTime createdAt) {
+        return Enquiry.builder()
+                .id(UUID.randomUUID())
+                .name("Test")
+                .mobile("9999999999")
+                .status(Enquiry.EnquiryStatus.NEW)
+                .createdAt(createdAt)
+                .build();
+    }
+}
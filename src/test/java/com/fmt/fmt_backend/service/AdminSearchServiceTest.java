@@ -0,0 +1,70 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.dto.ApiResponse;
+import com.fmt.fmt_backend.dto.EnquiryResponse;
+import com.fmt.fmt_backend.dto.SearchResultsResponse;
+import com.fmt.fmt_backend.entity.Enquiry;
+import com.fmt.fmt_backend.repository.EnquiryRepository;
+import com.fmt.fmt_backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AdminSearchServiceTest {
+
+    private EnquiryRepository enquiryRepository;
+    private AdminSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        enquiryRepository = mock(EnquiryRepository.class);
+        service = new AdminSearchService(enquiryRepository, mock(UserRepository.class));
+        ReflectionTestUtils.setField(service, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(service, "maxPageSize", 100);
+        ReflectionTestUtils.setField(service, "maxResults", 4);
+    }
+
+    @Test
+    void escapesLikeWildcardsAndFetchesOneExtraRow() {
+        when(enquiryRepository.search(anyString(), anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of(enquiry(), enquiry(), enquiry()));
+
+        ApiResponse<SearchResultsResponse<EnquiryResponse>> response = service.searchEnquiries("  100%_off ", 1, null);
+
+        verify(enquiryRepository).search("100%_off", "%100\\%\\_off%", 3, 2);
+        assertThat(response.getData().getItems()).hasSize(2);
+        // Page 1 of size 2 already reaches max-results
+        assertThat(response.getData().isHasMore()).isFalse();
+    }
+
+    @Test
+    void rejectsQueriesTooShortForTrigramsAndPagesPastTheCap() {
+        assertThat(service.searchEnquiries("ab", null, null).isSuccess()).isFalse();
+        assertThat(service.searchEnquiries("pune", 2, null).isSuccess()).isFalse();
+
+        verifyNoInteractions(enquiryRepository);
+    }
+
+    private static Enquiry enquiry() {
+        return Enquiry.builder()
+                .id(UUID.randomUUID())
+                .name("Asha")
+                .mobile("9876543210")
+                .status(Enquiry.EnquiryStatus.NEW)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
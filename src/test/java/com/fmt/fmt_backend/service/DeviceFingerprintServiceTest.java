@@ -0,0 +1,118 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.config.RequestContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceFingerprintServiceTest {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64)";
+
+    private final DeviceFingerprintService service =
+            new DeviceFingerprintService(new RequestContext(), List.of("10.0.0.0/8", "::1/128"));
+
+    // ========== MURMUR3 ==========
+
+    @Test
+    void murmur3MatchesTheReferenceVectors() {
+        // Seed 0, UTF-8; the fox digest is the widely published 6c1b07bc7bbc4be347939ac4a93c437a
+        assertHash("", 0L, 0L);
+        assertHash("hello", 0xcbd8a7b341bd9b02L, 0x5b1e906a48ae1d19L);
+        assertHash("The quick brown fox jumps over the lazy dog", 0xe34bbc7bbc071b6cL, 0x7a433ca9c49a9347L);
+        // Two-, three- and four-byte (surrogate pair) sequences, 26 bytes so the tail crosses 8
+        assertHash("Pünktlich – 東京 😀", 0x14d0ef72f42cd0fdL, 0xd671901b4f83e362L);
+    }
+
+    @Test
+    void fingerprintIsTheVersion8HashOfUserAgentAndIp() {
+        MockHttpServletRequest request = request("203.0.113.7", null);
+
+        UUID fingerprint = UUID.fromString(service.fingerprint(request));
+
+        assertThat(fingerprint.version()).isEqualTo(8);
+        assertThat(fingerprint.variant()).isEqualTo(2);
+        // Murmur3 of "Mozilla/5.0 (Windows NT 10.0; Win64; x64)|203.0.113.7" outside the stamped bits
+        assertThat(fingerprint.getMostSignificantBits() & 0xFFFFFFFFFFFF0FFFL).isEqualTo(0xb9f7bc588a100a87L);
+        assertThat(fingerprint.getLeastSignificantBits() & 0x3FFFFFFFFFFFFFFFL).isEqualTo(0x2fa424b97e9b7730L);
+    }
+
+    // ========== CLIENT IP ==========
+
+    @Test
+    void ignoresForwardedForFromAnUntrustedPeer() {
+        assertThat(service.clientIp(request("203.0.113.9", "198.51.100.7"))).isEqualTo("203.0.113.9");
+    }
+
+    @Test
+    void takesTheFirstUntrustedHopFromTheRight() {
+        assertThat(service.clientIp(request("10.0.0.2", "198.51.100.7, 10.0.0.1"))).isEqualTo("198.51.100.7");
+        assertThat(service.clientIp(request("::1", "198.51.100.7"))).isEqualTo("198.51.100.7");
+    }
+
+    @Test
+    void aSpoofedLeadingEntryDoesNotWin() {
+        // The client sent "X-Forwarded-For: 6.6.6.6"; our proxy appended the address it actually saw
+        assertThat(service.clientIp(request("10.0.0.2", "6.6.6.6, 198.51.100.7, 10.0.0.1"))).isEqualTo("198.51.100.7");
+    }
+
+    @Test
+    void fallsBackToTheOutermostHopWhenEveryHopIsTrusted() {
+        assertThat(service.clientIp(request("10.0.0.2", " , 10.0.0.5,10.0.0.1"))).isEqualTo("10.0.0.5");
+    }
+
+    @Test
+    void hexLetterHostnamesAreNeverTrustedOrResolved() {
+        // Would resolve through DNS if handed to InetAddress.getByName
+        assertThat(DeviceFingerprintService.parseIpLiteral("cafe")).isNull();
+        assertThat(DeviceFingerprintService.parseIpLiteral("bead.cafe")).isNull();
+        assertThat(DeviceFingerprintService.parseIpLiteral("dead.beef")).isNull();
+        assertThat(DeviceFingerprintService.parseIpLiteral("010.0.0.1")).isNull();
+        assertThat(DeviceFingerprintService.parseIpLiteral("10.0.0.1")).containsExactly(10, 0, 0, 1);
+        assertThat(DeviceFingerprintService.parseIpLiteral("::ffff:10.0.0.1")).hasSize(4);
+        assertThat(DeviceFingerprintService.parseIpLiteral("2001:db8::1")).hasSize(16);
+
+        // Even trusting every address, a hostname hop stops the walk at the last checked address
+        DeviceFingerprintService trustingAll =
+                new DeviceFingerprintService(new RequestContext(), List.of("0.0.0.0/0", "::/0"));
+        assertThat(trustingAll.clientIp(request("10.0.0.2", "198.51.100.7, bead.cafe"))).isEqualTo("10.0.0.2");
+    }
+
+    // ========== LEGACY ==========
+
+    @Test
+    void legacyFingerprintIsTheOldMd5NameUuid() {
+        MockHttpServletRequest request = request("203.0.113.7", null);
+
+        UUID legacy = UUID.fromString(service.legacyFingerprint(request));
+
+        assertThat(legacy).isEqualTo(UUID.nameUUIDFromBytes(
+                (USER_AGENT + "|203.0.113.7").getBytes(StandardCharsets.UTF_8)));
+        assertThat(legacy.version()).isEqualTo(3);
+        assertThat(legacy.toString()).isNotEqualTo(service.fingerprint(request));
+    }
+
+    private static void assertHash(String input, long h1, long h2) {
+        DeviceFingerprintService.Murmur3 hash = new DeviceFingerprintService.Murmur3();
+        hash.putUtf8(input);
+        hash.finish();
+
+        assertThat(hash.h1).as("h1 of \"%s\"", input).isEqualTo(h1);
+        assertThat(hash.h2).as("h2 of \"%s\"", input).isEqualTo(h2);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("User-Agent", USER_AGENT);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,69 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.entity.Enquiry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EnquiryDeduplicatorTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private EnquiryDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        deduplicator = new EnquiryDeduplicator(jdbcTemplate, new SimpleMeterRegistry(), 30, 1000);
+        ReflectionTestUtils.setField(deduplicator, "flushBatchSize", 500);
+    }
+
+    @Test
+    void normalisesCountryCodeTrunkZeroAndSeparators() {
+        assertThat(EnquiryDeduplicator.normalizeMobile("+91 98765-43210")).isEqualTo("9876543210");
+        assertThat(EnquiryDeduplicator.normalizeMobile("098765 43210")).isEqualTo("9876543210");
+        assertThat(EnquiryDeduplicator.normalizeMobile("9876543210")).isEqualTo("9876543210");
+    }
+
+    @Test
+    void foldsRepeatsIntoTheFirstEnquiryAndCarriesCountsForRowsNotYetInserted() {
+        UUID original = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(deduplicator.coalesce("9876543210", now)).isEmpty();
+        deduplicator.remember(Enquiry.builder().id(original).mobile("9876543210").createdAt(now).build());
+
+        // The caller gets the original row's id and received time, and how many submissions it now stands for
+        assertThat(deduplicator.coalesce("+91 9876543210", now))
+                .contains(new EnquiryDeduplicator.FoldedEnquiry(original, now, 2));
+        assertThat(deduplicator.coalesce("09876543210", now.plusSeconds(5)))
+                .contains(new EnquiryDeduplicator.FoldedEnquiry(original, now, 3));
+
+        // First flush: row still sitting in the ingestion buffer, second: inserted
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), any(Object[].class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(original));
+        deduplicator.flush();
+        deduplicator.flush();
+
+        // Both repeats go out together in one row: (id, 2, latest timestamp)
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(UUID.class),
+                eq(original), eq(2), any());
+        deduplicator.flush();
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(UUID.class), any(Object[].class));
+    }
+}
@@ -0,0 +1,172 @@
+package com.fmt.fmt_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fmt.fmt_backend.config.EnquiryIngestionProperties;
+import com.fmt.fmt_backend.entity.Enquiry;
+import com.fmt.fmt_backend.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EnquiryIngestionBufferTest {
+
+    @TempDir
+    Path journalDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private EnquiryNotifier enquiryNotifier;
+    private EnquiryStatsService enquiryStatsService;
+    private EnquiryIngestionProperties properties;
+    private final List<UUID> inserted = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        enquiryNotifier = mock(EnquiryNotifier.class);
+        enquiryStatsService = mock(EnquiryStatsService.class);
+        properties = new EnquiryIngestionProperties();
+        properties.setJournalDir(journalDir.toString());
+        properties.setQueueCapacity(3);
+
+        // Behaves like INSERT ... ON CONFLICT (id) DO NOTHING RETURNING id
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] arguments = invocation.getArguments();
+            Object[] params = Arrays.copyOfRange(arguments, 2, arguments.length);
+            List<UUID> returned = new ArrayList<>();
+            for (int i = 0; i < params.length; i += 11) {
+                UUID id = (UUID) params[i];
+                if (!inserted.contains(id)) {
+                    inserted.add(id);
+                    returned.add(id);
+                }
+            }
+            return returned;
+        });
+    }
+
+    @Test
+    void flushInsertsQueuedEnquiriesAndDropsTheirJournal() throws Exception {
+        EnquiryIngestionBuffer buffer = newBuffer();
+        Enquiry first = buffer.submit(enquiry("9876543210"));
+        Enquiry second = buffer.submit(enquiry("9876543211"));
+
+        assertThat(buffer.flush()).isTrue();
+
+        assertThat(inserted).containsExactly(first.getId(), second.getId());
+        verify(enquiryNotifier, times(2)).enquiryReceived(any());
+        assertThat(journalLines()).isZero(); // Only the fresh, empty segment is left
+    }
+
+    @Test
+    void replaysTheJournalLeftByACrashWithoutDuplicatingCommittedRows() throws Exception {
+        EnquiryIngestionBuffer crashed = newBuffer();
+        Enquiry committed = crashed.submit(enquiry("9876543210"));
+        Enquiry lost = crashed.submit(enquiry("9876543211"));
+        inserted.add(committed.getId()); // Inserted just before the crash, journal not yet deleted
+
+        EnquiryIngestionBuffer restarted = newBuffer();
+        restarted.replay();
+
+        assertThat(inserted).containsExactly(committed.getId(), lost.getId());
+        verify(enquiryNotifier, times(1)).enquiryReceived(any());
+        assertThat(journalLines()).isZero();
+    }
+
+    @Test
+    void rejectsSubmissionsOnceTheQueueIsFull() throws Exception {
+        EnquiryIngestionBuffer buffer = newBuffer();
+        for (int i = 0; i < 3; i++) {
+            buffer.submit(enquiry("987654321" + i));
+        }
+
+        assertThatThrownBy(() -> buffer.submit(enquiry("9876543219")))
+                .isInstanceOf(ServiceOverloadedException.class);
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(UUID.class), any(Object[].class));
+    }
+
+    @Test
+    void concurrentSubmissionsShareJournalSyncs() throws Exception {
+        properties.setQueueCapacity(1_000);
+        EnquiryIngestionBuffer buffer = newBuffer();
+        int threads = 8;
+        int perThread = 50;
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> submitters = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                submitters.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        buffer.submit(enquiry(String.format("98%04d%04d", thread, i)));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> submitter : submitters) {
+                submitter.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every acknowledged submission is journaled; fsyncs never exceed submissions (usually far fewer)
+        assertThat(journalLines()).isEqualTo(threads * perThread);
+        double syncs = meterRegistry.counter("enquiry.ingestion.journal.syncs").count();
+        assertThat(syncs).isBetween(1.0, (double) threads * perThread);
+    }
+
+    private EnquiryIngestionBuffer newBuffer() throws Exception {
+        EnquiryIngestionBuffer buffer = new EnquiryIngestionBuffer(jdbcTemplate, enquiryNotifier, enquiryStatsService,
+                new ObjectMapper().findAndRegisterModules(), properties, meterRegistry);
+        buffer.openJournal();
+        return buffer;
+    }
+
+    private long journalLines() throws Exception {
+        long lines = 0;
+        try (Stream<Path> segments = Files.list(journalDir)) {
+            for (Path segment : segments.toList()) {
+                lines += Files.readAllLines(segment).size();
+            }
+        }
+        return lines;
+    }
+
+    private static Enquiry enquiry(String mobile) {
+        return Enquiry.builder()
+                .name("Test")
+                .mobile(mobile)
+                .status(Enquiry.EnquiryStatus.NEW)
+                .build();
+    }
+}
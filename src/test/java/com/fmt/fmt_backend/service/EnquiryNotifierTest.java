@@ -0,0 +1,65 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.config.EnquiryNotificationProperties;
+import com.fmt.fmt_backend.entity.Enquiry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EnquiryNotifierTest {
+
+    private SendGridEmailService emailService;
+    private EnquiryNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(SendGridEmailService.class);
+        EnquiryNotificationProperties properties = new EnquiryNotificationProperties();
+        properties.setDigestMaxSize(3);
+        properties.setImmediateInterestAreas(List.of("Mentorship"));
+        notifier = new EnquiryNotifier(emailService, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void collectsEnquiriesIntoOneDigestSentWhenFull() {
+        notifier.enquiryReceived(enquiry("Options"));
+        notifier.enquiryReceived(enquiry("Futures"));
+        verify(emailService, never()).sendEnquiryDigest(any());
+
+        notifier.enquiryReceived(enquiry(null));
+
+        verify(emailService, times(1)).sendEnquiryDigest(argThat(batch -> batch.size() == 3));
+        verify(emailService, never()).sendEnquiryNotification(any());
+    }
+
+    @Test
+    void sendsPriorityAreasImmediatelyAndTheRestOnTheTimer() {
+        notifier.enquiryReceived(enquiry(" mentorship "));
+        notifier.enquiryReceived(enquiry("Options"));
+
+        verify(emailService, times(1)).sendEnquiryNotification(any());
+
+        notifier.flush();
+        notifier.flush(); // Nothing left - no empty digest
+
+        verify(emailService, times(1)).sendEnquiryDigest(argThat(batch -> batch.size() == 1));
+    }
+
+    private static Enquiry enquiry(String areaOfInterest) {
+        return Enquiry.builder()
+                .name("Test")
+                .mobile("9876543210")
+                .areaOfInterest(areaOfInterest)
+                .status(Enquiry.EnquiryStatus.NEW)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.dto.EnquiryStatsResponse;
+import com.fmt.fmt_backend.entity.Enquiry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EnquiryStatsServiceTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private EnquiryStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        statsService = new EnquiryStatsService(jdbcTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(statsService, "flushBatchSize", 500);
+        ReflectionTestUtils.setField(statsService, "cachedDays", 90);
+    }
+
+    @Test
+    void countsNewEnquiriesAndMovesThemBetweenStatuses() {
+        Enquiry first = enquiry(MONDAY, " Pune ");
+        statsService.recordCreated(first);
+        statsService.recordCreated(enquiry(MONDAY.plusHours(3), "pune"));
+        statsService.recordCreated(enquiry(MONDAY.plusDays(1), null));
+
+        statsService.recordStatusChange(first, Enquiry.EnquiryStatus.NEW, Enquiry.EnquiryStatus.CONTACTED);
+
+        EnquiryStatsResponse monday = statsService.getStats(MONDAY.toLocalDate(), MONDAY.toLocalDate());
+        assertThat(monday.getTotal()).isEqualTo(2);
+        assertThat(monday.getByCity()).containsEntry("pune", 2L).hasSize(1);
+        assertThat(monday.getByStatus()).containsEntry("NEW", 1L).containsEntry("CONTACTED", 1L);
+
+        EnquiryStatsResponse week = statsService.getStats(MONDAY.toLocalDate(), LocalDate.of(2026, 3, 8));
+        assertThat(week.getTotal()).isEqualTo(3);
+        assertThat(week.getPerDay()).containsEntry(LocalDate.of(2026, 3, 3), 1L);
+        assertThat(week.getByCity()).containsEntry("unknown", 1L);
+    }
+
+    @Test
+    void keepsDeltasWhenTheUpsertFails() {
+        statsService.recordCreated(enquiry(MONDAY, "Mumbai"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new RuntimeException("connection refused"));
+
+        statsService.flush();
+
+        verify(jdbcTemplate).update(anyString(), any(Object[].class));
+        assertThat(statsService.getStats(MONDAY.toLocalDate(), MONDAY.toLocalDate()).getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void flushesEveryChunkInOneTransaction() {
+        ReflectionTestUtils.setField(statsService, "flushBatchSize", 2);
+        statsService.recordCreated(enquiry(MONDAY, "Mumbai"));
+        statsService.recordCreated(enquiry(MONDAY.plusDays(1), "Pune"));
+
+        statsService.flush();
+
+        verify(transactionTemplate).executeWithoutResult(any());
+        verify(jdbcTemplate, times(4)).update(anyString(), any(Object[].class)); // 8 counters, 2 per statement
+    }
+
+    @Test
+    void rebuildDropsDeltasTheScanAlreadyCounts() {
+        statsService.recordCreated(enquiry(MONDAY, "Mumbai"));
+
+        statsService.rebuild();
+
+        assertThat(statsService.getStats(MONDAY.toLocalDate(), MONDAY.toLocalDate()).getTotal()).isZero();
+        statsService.flush();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void flushReloadsOnlyTheCachedDaysAndOlderRangesAreQueriedOnDemand() {
+        LocalDate since = LocalDate.now().minusDays(90);
+        statsService.flush();
+        verify(jdbcTemplate).query(contains("WHERE day >= ?"), any(RowCallbackHandler.class), eq(Date.valueOf(since)));
+
+        statsService.getStats(since.minusDays(10), LocalDate.now());
+
+        verify(jdbcTemplate).query(contains("WHERE day BETWEEN ? AND ?"), any(RowCallbackHandler.class),
+                eq(Date.valueOf(since.minusDays(10))), eq(Date.valueOf(since.minusDays(1))));
+    }
+
+    private static Enquiry enquiry(LocalDateTime createdAt, String city) {
+        return Enquiry.builder()
+                .city(city)
+                .experienceLevel(Enquiry.ExperienceLevel.BEGINNER)
+                .status(Enquiry.EnquiryStatus.NEW)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.fmt.fmt_backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PartitionMaintenanceServiceTest {
+
+    // A Wednesday, so the weekly refresh_tokens partitions start on Monday 2026-03-02
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 4, 10, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private PartitionMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new PartitionMaintenanceService(jdbcTemplate);
+        ReflectionTestUtils.setField(service, "clock",
+                Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC")));
+        ReflectionTestUtils.setField(service, "otpDaysAhead", 2);
+        ReflectionTestUtils.setField(service, "otpRetentionDays", 2);
+        ReflectionTestUtils.setField(service, "refreshTokenWeeksAhead", 1);
+        ReflectionTestUtils.setField(service, "refreshTokenExpirationMs", 14L * 24 * 60 * 60 * 1000);
+
+        when(jdbcTemplate.queryForObject(eq("SELECT to_regclass(?) IS NOT NULL"), eq(Boolean.class), anyString()))
+                .thenAnswer(invocation -> "otps_p20260304".equals(invocation.getArgument(2)));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("otps"), anyString()))
+                .thenReturn(List.of("otps_p20260301", "otps_p20260302", "otps_p20260304"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("refresh_tokens"), anyString()))
+                .thenReturn(List.of("refresh_tokens_p20260209", "refresh_tokens_p20260216", "refresh_tokens_p20260302"));
+    }
+
+    @Test
+    void createsMissingPartitionsAheadOfTheClock() {
+        service.maintainPartitions();
+
+        assertThat(executed()).filteredOn(sql -> sql.startsWith("CREATE")).containsExactly(
+                "CREATE TABLE IF NOT EXISTS otps_p20260305 PARTITION OF otps FOR VALUES FROM ('2026-03-05') TO ('2026-03-06')",
+                "CREATE TABLE IF NOT EXISTS otps_p20260306 PARTITION OF otps FOR VALUES FROM ('2026-03-06') TO ('2026-03-07')",
+                "CREATE TABLE IF NOT EXISTS refresh_tokens_p20260302 PARTITION OF refresh_tokens " +
+                        "FOR VALUES FROM ('2026-03-02') TO ('2026-03-09')",
+                "CREATE TABLE IF NOT EXISTS refresh_tokens_p20260309 PARTITION OF refresh_tokens " +
+                        "FOR VALUES FROM ('2026-03-09') TO ('2026-03-16')");
+    }
+
+    @Test
+    void dropsOnlyPartitionsWhoseWholeRangeIsPastRetention() {
+        service.maintainPartitions();
+
+        // OTP cutoff 2026-03-02 10:00; token cutoff 14 days + 1 day grace earlier, 2026-02-17 10:00
+        assertThat(executed()).filteredOn(sql -> sql.startsWith("DROP")).containsExactly(
+                "DROP TABLE IF EXISTS otps_p20260301",
+                "DROP TABLE IF EXISTS refresh_tokens_p20260209");
+    }
+
+    private List<String> executed() {
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeastOnce()).execute(statements.capture());
+        return statements.getAllValues();
+    }
+}
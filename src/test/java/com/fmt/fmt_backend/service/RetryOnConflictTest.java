@@ -0,0 +1,67 @@
+package com.fmt.fmt_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetryOnConflictTest {
+
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private RetryOnConflict retryOnConflict;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        retryOnConflict = new RetryOnConflict(new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(retryOnConflict, "maxAttempts", 3);
+        ReflectionTestUtils.setField(retryOnConflict, "backoffMs", 0L);
+    }
+
+    @Test
+    void rerunsWorkInAFreshTransactionAfterAConflict() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retryOnConflict.inTransaction("device.revoke", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException("DeviceEntity", "id");
+            }
+            return "revoked";
+        });
+
+        assertThat(result).isEqualTo("revoked");
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(1)).rollback(any());
+        assertThat(meterRegistry.get("db.optimistic_lock.retries").tag("operation", "device.revoke")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryOnConflict.inTransaction("login", () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("User", "id");
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(calls).hasValue(3);
+    }
+}
@@ -0,0 +1,78 @@
+package com.fmt.fmt_backend.service;
+
+import com.fmt.fmt_backend.service.UserAgentClassifier.DeviceClass;
+import com.fmt.fmt_backend.service.UserAgentClassifier.UserAgentInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class UserAgentClassifierTest {
+
+    private final UserAgentClassifier classifier = new UserAgentClassifier(16);
+
+    static Stream<Arguments> userAgents() {
+        return Stream.of(
+                arguments("Opera on Windows",
+                        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) " +
+                                "Chrome/120.0.0.0 Safari/537.36 OPR/106.0.0.0",
+                        new UserAgentInfo("Opera", "106.0", "Windows", DeviceClass.DESKTOP)),
+                arguments("Edge on Windows",
+                        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) " +
+                                "Chrome/120.0.0.0 Safari/537.36 Edg/120.0.2210.91",
+                        new UserAgentInfo("Edge", "120.0", "Windows", DeviceClass.DESKTOP)),
+                arguments("Chrome on macOS",
+                        "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) " +
+                                "Chrome/120.0.0.0 Safari/537.36",
+                        new UserAgentInfo("Chrome", "120.0", "macOS", DeviceClass.DESKTOP)),
+                arguments("Safari on iPhone",
+                        "Mozilla/5.0 (iPhone; CPU iPhone OS 17_2 like Mac OS X) AppleWebKit/605.1.15 " +
+                                "(KHTML, like Gecko) Version/17.2 Mobile/15E148 Safari/604.1",
+                        new UserAgentInfo("Safari", "17.2", "iOS", DeviceClass.MOBILE)),
+                arguments("Safari on iPad",
+                        "Mozilla/5.0 (iPad; CPU OS 17_2 like Mac OS X) AppleWebKit/605.1.15 " +
+                                "(KHTML, like Gecko) Version/17.2 Mobile/15E148 Safari/604.1",
+                        new UserAgentInfo("Safari", "17.2", "iOS", DeviceClass.TABLET)),
+                arguments("Firefox on Linux",
+                        "Mozilla/5.0 (X11; Linux x86_64; rv:121.0) Gecko/20100101 Firefox/121.0",
+                        new UserAgentInfo("Firefox", "121.0", "Linux", DeviceClass.DESKTOP)),
+                arguments("Firefox on iPhone",
+                        "Mozilla/5.0 (iPhone; CPU iPhone OS 17_2 like Mac OS X) AppleWebKit/605.1.15 " +
+                                "(KHTML, like Gecko) FxiOS/121.0 Mobile/15E148 Safari/605.1.15",
+                        new UserAgentInfo("Firefox", "121.0", "iOS", DeviceClass.MOBILE)),
+                arguments("Android WebView",
+                        "Mozilla/5.0 (Linux; Android 13; Pixel 7 Build/TQ3A.230901.001; wv) AppleWebKit/537.36 " +
+                                "(KHTML, like Gecko) Version/4.0 Chrome/120.0.6099.144 Mobile Safari/537.36",
+                        new UserAgentInfo("Chrome", "120.0", "Android", DeviceClass.MOBILE)),
+                arguments("Android tablet",
+                        "Mozilla/5.0 (Linux; Android 13; SM-X700) AppleWebKit/537.36 (KHTML, like Gecko) " +
+                                "Chrome/120.0.0.0 Safari/537.36",
+                        new UserAgentInfo("Chrome", "120.0", "Android", DeviceClass.TABLET)),
+                arguments("Cubot phone is not a bot",
+                        "Mozilla/5.0 (Linux; Android 10; CUBOT X30) AppleWebKit/537.36 (KHTML, like Gecko) " +
+                                "Chrome/91.0.4472.120 Mobile Safari/537.36",
+                        new UserAgentInfo("Chrome", "91.0", "Android", DeviceClass.MOBILE)),
+                arguments("Googlebot",
+                        "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+                        new UserAgentInfo("Unknown Browser", null, "Unknown OS", DeviceClass.BOT)),
+                arguments("Googlebot smartphone",
+                        "Mozilla/5.0 (Linux; Android 6.0.1; Nexus 5X Build/MMB29P) AppleWebKit/537.36 " +
+                                "(KHTML, like Gecko) Chrome/120.0.6099.216 Mobile Safari/537.36 " +
+                                "(compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+                        new UserAgentInfo("Chrome", "120.0", "Android", DeviceClass.BOT)),
+                arguments("curl",
+                        "curl/8.4.0",
+                        new UserAgentInfo("Unknown Browser", null, "Unknown OS", DeviceClass.BOT))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("userAgents")
+    void classifies(String name, String userAgent, UserAgentInfo expected) {
+        assertThat(classifier.classify(userAgent)).isEqualTo(expected);
+    }
+}